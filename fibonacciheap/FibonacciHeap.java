@@ -0,0 +1,6219 @@
+package fibonacciheap;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.ToLongFunction;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.CRC32;
+
+/**
+ * FibonacciHeap
+ *
+ * An implementation of a Fibonacci Heap over integers.
+ */
+public class FibonacciHeap
+{
+    // fields of FibonacciHeap.
+    public HeapNode min;
+    protected HeapNode treeListStart;
+    public int treeCount;
+    public int size;
+
+    public int markedCount;
+
+    // operation statistics of this heap, and of all heaps together
+    private final HeapStats stats = new HeapStats();
+    private static final HeapStats GLOBAL_STATS = new HeapStats();
+
+    // root lists shorter than this are consolidated sequentially by consolidate(ForkJoinPool)
+    public static final int PARALLEL_THRESHOLD = 1 << 16;
+    // roots a ConsolidateTask links without forking
+    private static final int PARALLEL_LEAF = 1 << 13;
+
+    // rank buckets reused by every consolidate, grown when a larger rank shows up. Empty between calls.
+    private HeapNode[] buckets = new HeapNode[0];
+
+    // when deleteMin consolidates, see ConsolidationPolicy
+    private ConsolidationPolicy consolidationPolicy = ConsolidationPolicy.EAGER;
+    private double consolidationFactor = 2;
+
+    // INCREMENTAL state. The tree list is pendingCount roots waiting to be consolidated, then the settled roots
+    // from settledStart to the end of the list, at most one per rank, each kept in rankSlots[rank].
+    // After every call there are at most stepBudget() pending roots.
+    private HeapNode[] rankSlots = new HeapNode[0];
+    private HeapNode settledStart;
+    private int pendingCount;
+    private int stepsPerOperation = 2;
+    // steps owed by earlier operations, paid at most stepBudget() a call
+    private long stepDebt;
+    // steps run by the last call, for tests
+    int lastStepCount;
+
+    // binary format of writeTo and readFrom: a header of five ints, then 5 bytes per node, or 13 with ids
+    private static final int FORMAT_MAGIC = 0x46494248; // "FIBH"
+    private static final int FORMAT_VERSION = 1;
+    private static final int FORMAT_HEADER_BYTES = 20;
+    private static final int FORMAT_NODE_BYTES = 5;
+    private static final int FORMAT_ID_BYTES = 8;
+    private static final int FORMAT_FLAG_IDS = 1;
+    private static final int FORMAT_MARK_BIT = 0x80;
+    // bytes buffered per write, and bytes mapped at a time when reading
+    private static final int FORMAT_WRITE_BUFFER_BYTES = 1 << 20;
+    private static final long FORMAT_READ_WINDOW_BYTES = 1L << 26;
+
+    // snapshots that may still read the nodes of this heap. Null if none.
+    private ArrayList<Snapshot> sharedSnapshots;
+    // epoch of the newest and of the oldest snapshot in sharedSnapshots, 0 if there is none.
+    // A change saves the old fields of a node once per newest epoch, see touch.
+    private long savingEpoch;
+    private long oldestSnapshotEpoch;
+    // numbers every snapshot of every heap, so melded heaps can compare the epochs of their nodes
+    private static final AtomicLong SNAPSHOT_EPOCHS = new AtomicLong();
+
+    // removed nodes kept for reuse, chained through next. Off while poolCapacity is 0.
+    private HeapNode pool;
+    private int poolSize;
+    private int poolCapacity;
+
+    /**
+     * Construct a node from data
+     * @param min
+     * @param treeListStart
+     * @param treeCount
+     * @param size
+     * @param markedCount
+     * @time complexity: O(1)
+     */
+    public FibonacciHeap(HeapNode min,
+                         HeapNode treeListStart,
+                         int treeCount,
+                         int size,
+                         int markedCount) {
+        this.min = min;
+        this.treeListStart = treeListStart;
+        this.treeCount = treeCount;
+        this.size = size;
+        this.markedCount = markedCount;
+
+    }
+
+    /**
+     * Constructs a heap using another heap data
+     * @post: new heap point to the old heap nodes, so changing either heap changes both.
+     *        Use snapshot() for a view that stays as it was.
+     * @param heap heap to construct from
+     * @time complexity: O(1)
+     */
+    public FibonacciHeap(FibonacciHeap heap){
+        this(
+                heap.min,
+                heap.treeListStart,
+                heap.treeCount,
+                heap.size,
+                heap.markedCount
+        );
+    }
+
+    /**
+     * Default constructor, creates an empty heap.
+     * @time complexity: O(1)
+     */
+    public FibonacciHeap(){
+        this(null, null, 0,0,0);
+    }
+
+    /**
+     * public HeapNode findMin()
+     *
+     * Returns the node of the heap whose key is minimal, or null if the heap is empty.
+     * @time complexity: O(1)
+     */
+    public HeapNode findMin() {
+        return this.min;
+    }
+
+    /**
+     * Returns the number of trees in the heap.
+     * @time complexity: O(1)
+     */
+    public int getTreeCount() {
+        return this.treeCount;
+    }
+
+    /**
+     * Returns the size of the heap.
+     * @time complexity: O(1)
+     */
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * Returns the first node of the heap.
+     * @time complexity: O(1)
+     */
+    public HeapNode getFirst(){
+        return this.treeListStart;
+    }
+
+    /**
+     * Returns the sum of the marked nodes in the heap.
+     * @time complexity: O(1)
+     */
+    public int getMarkedCount() {
+        return this.markedCount;
+    }
+
+   /**
+    * public boolean isEmpty()
+    *
+    * Returns true if and only if the heap is empty.
+    * @time complexity: O(1)
+    */
+    public boolean isEmpty() {
+    	return this.getSize() < 1 || this.min == null;
+    }
+		
+   /**
+    * public HeapNode insert(int key)
+    *
+    * Creates a node (of type HeapNode) which contains the given key, and inserts it into the heap.
+    * The added key is assumed not to already belong to the heap.  
+    * 
+    * Returns the newly created node.
+    * @time complexity: O(1)
+    */
+    public HeapNode insert(int key) {
+        this.beforeChange();
+        // insert the created node to the heap if the heap is empty.
+        if (this.isEmpty()) {
+            HeapNode newNode = newNode(key);
+            newNode.next = newNode;
+            newNode.prev = newNode;
+
+            this.min = newNode;
+            this.treeListStart = newNode;
+            this.size = 1;
+            this.treeCount = 1;
+            if (this.consolidationPolicy == ConsolidationPolicy.INCREMENTAL) {
+                this.pendingCount = 1;
+            }
+
+            return newNode;
+        }
+
+        // insert the created node to the heap if the heap is not empty.
+        HeapNode newNode = newNode(key);
+        this.touch(this.treeListStart.prev);
+        this.treeListStart.prev.next = newNode;
+        newNode.next = this.treeListStart;
+        newNode.prev = this.treeListStart.getPrev();
+        this.treeListStart.prev = newNode;
+        this.treeListStart = newNode;
+
+        this.updateMin(newNode);
+        this.size++;
+        this.treeCount++;
+        if (this.consolidationPolicy == ConsolidationPolicy.INCREMENTAL) {
+            this.pendingCount++;
+            this.payStepDebt(this.stepsPerOperation + 2);
+        }
+
+        return newNode;
+    }
+
+    /**
+     * Creates a node for every key and splices all of them into the tree list at once, like meld.
+     * @return the new nodes, in the order of the keys
+     * @time complexity: O(k) for k keys
+     */
+    public HeapNode[] insertAll(int[] keys) {
+        return this.insertAll(keys, false);
+    }
+
+    /**
+     * Creates a node for every key of the stream and splices all of them into the tree list at once.
+     * @return the new nodes, in the order of the stream
+     * @time complexity: O(k) for k keys
+     */
+    public HeapNode[] insertAll(IntStream keys) {
+        return this.insertAll(keys.toArray(), false);
+    }
+
+    /**
+     * Creates a node for every key and splices all of them into the tree list at once.
+     * If consolidate is true, the new nodes are first linked into binomial trees, one per rank at most,
+     * so the next deleteMin does not pay for them. The trees already in the heap are left as they are.
+     * @return the new nodes, in the order of the keys
+     * @post: new nodes are added at the end of the tree list
+     * @time complexity: O(k) for k keys
+     */
+    public HeapNode[] insertAll(int[] keys, boolean consolidate) {
+        this.beforeChange();
+        int count = keys.length;
+        HeapNode[] nodes = new HeapNode[count];
+        if (count == 0) {
+            return nodes;
+        }
+        for (int i = 0; i < count; i++) {
+            nodes[i] = newNode(keys[i]);
+        }
+
+        HeapNode start = null;
+        HeapNode newMin = null;
+        int trees = 0;
+        if (consolidate) {
+            // binary counter: k nodes make at most one binomial tree per rank, of rank <= log2(k)
+            ensureBuckets(binlog(count) + 2);
+            HeapNode[] buckets = this.buckets;
+            int links = 0;
+            int maxRank = 0;
+            for (HeapNode tree : nodes) {
+                int rank = 0;
+                while (buckets[rank] != null) {
+                    tree = connectTrees(buckets[rank], tree);
+                    buckets[rank] = null;
+                    rank++;
+                    links++;
+                }
+                buckets[rank] = tree;
+                maxRank = (maxRank > rank)? maxRank : rank;
+            }
+            HeapNode last = null;
+            for (int rank = 0; rank <= maxRank; rank++) {
+                HeapNode tree = buckets[rank];
+                if (tree == null) {
+                    continue;
+                }
+                buckets[rank] = null; // leave the buckets empty for consolidate
+                if (start == null) {
+                    start = tree;
+                } else {
+                    last.next = tree;
+                    tree.prev = last;
+                }
+                if (newMin == null || tree.key < newMin.key) {
+                    newMin = tree;
+                }
+                last = tree;
+                trees++;
+            }
+            last.next = start;
+            start.prev = last;
+            this.recordConsolidation(count, links);
+        } else {
+            start = nodes[0];
+            newMin = start;
+            HeapNode last = start;
+            for (int i = 1; i < count; i++) {
+                HeapNode node = nodes[i];
+                last.next = node;
+                node.prev = last;
+                if (node.key < newMin.key) {
+                    newMin = node;
+                }
+                last = node;
+            }
+            last.next = start;
+            start.prev = last;
+            trees = count;
+        }
+
+        // splice, as in meld
+        if (this.isEmpty() || newMin.key < this.min.key) {
+            this.min = newMin;
+        }
+        this.addToEndOfTreeList(start);
+        this.addToCounters(trees, count, 0);
+        if (this.consolidationPolicy == ConsolidationPolicy.INCREMENTAL) {
+            this.addPendingAtStart(start, trees);
+        }
+        return nodes;
+    }
+
+    /**
+     * Keeps up to capacity removed nodes for reuse by later inserts, so a steady stream of inserts and
+     * deletes allocates no nodes. 0, the default, turns the pool off.
+     * With the pool on, a removed node must not be used any more: its generation changed when it was removed,
+     * and it may come back from insert with another key. Callers that keep handles should store
+     * node.getGeneration() next to them and compare before use.
+     * @time complexity: O(1), or O(p) to drop p pooled nodes when the capacity shrinks
+     */
+    public void setNodePoolCapacity(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("negative pool capacity " + capacity);
+        }
+        this.poolCapacity = capacity;
+        while (this.poolSize > capacity) {
+            this.pool = this.pool.next;
+            this.poolSize--;
+        }
+    }
+
+    /**
+     * Returns a node holding key, reused from the pool if there is one.
+     * @time complexity: O(1)
+     */
+    private HeapNode newNode(int key) {
+        HeapNode node = this.pool;
+        if (node == null) {
+            return this.createNode(key);
+        }
+        this.pool = node.next;
+        this.poolSize--;
+        this.touch(node);
+        node.key = key;
+        node.next = null;
+        return node;
+    }
+
+    /**
+     * Creates every node of the heap that does not come from the pool, so subclasses can add fields to nodes.
+     * @time complexity: O(1)
+     */
+    protected HeapNode createNode(int key) {
+        return new HeapNode(key);
+    }
+
+    /**
+     * Stamps a removed node with a new generation and puts it in the pool if there is room.
+     * @pre: node is no longer linked into the heap
+     * @time complexity: O(1)
+     */
+    private void release(HeapNode node) {
+        if (node == null) {
+            return;
+        }
+        node.generation++;
+        if (this.poolSize < this.poolCapacity) {
+            this.touch(node);
+            node.rank = 0;
+            node.mark = false;
+            node.child = null;
+            node.parent = null;
+            node.prev = null;
+            node.next = this.pool;
+            this.pool = node;
+            this.poolSize++;
+        }
+    }
+
+    /**
+     * Updates the minimum node of the heap.
+     * @time complexity: O(1)
+     */
+    private void updateMin(HeapNode newNode) {
+        if (newNode.key < this.min.key) {
+            this.min = newNode;
+        }
+    }
+
+   /**
+    * public void deleteMin()
+    *
+    * @- Deletes the node containing the minimum key.
+    * @post: update minimum pointer (found by consolidate, without another pass over the roots)
+    * @post: heap is consolidated to a binomial heap, unless the consolidation policy skips it
+    * @time complexity: O(n)
+    */
+    public void deleteMin() {
+        this.beforeChange();
+        HeapNode oldMin = this.min;
+        if (this.consolidationPolicy == ConsolidationPolicy.INCREMENTAL) {
+            if (!this.isEmpty()) {
+                int rank = oldMin.rank;
+                this.removeRootIncrementally(oldMin);
+                this.size--;
+                this.payStepDebt(this.stepsPerOperation + 2 * rank);
+                this.min = this.findIncrementalMin();
+            }
+        } else {
+            deleteMinAndDontFindNew();
+            consolidateByPolicy();
+        }
+        release(oldMin);
+    }
+
+    /**
+     * Finds the new minimum after the old one was taken out of the tree list,
+     * consolidating unless the policy says the root list is still short.
+     * @post: update minimum pointer
+     * @time complexity: O(t) for t trees, amortized
+     */
+    private void consolidateByPolicy() {
+        if (this.consolidationPolicy == ConsolidationPolicy.INCREMENTAL) {
+            // the tree list was rebuilt, so start over with every root pending
+            this.resetIncrementalState();
+            this.payStepDebt(this.stepsPerOperation + 2 * this.treeCount);
+            this.min = this.findIncrementalMin();
+            return;
+        }
+        if (this.consolidationPolicy == ConsolidationPolicy.THRESHOLD
+                && this.treeCount <= this.consolidationFactor * (binlog(this.size) + 1)) {
+            this.min = this.findNewMin();
+            return;
+        }
+        consolidate();
+    }
+
+    /**
+     * Adds the steps an operation owes to the debt, and pays off as much of the debt as the budget of one call allows.
+     * Runs past the budget only while more than stepBudget() roots are pending, so the pending roots a call added
+     * are settled by that call, and no search for the minimum scans more than stepBudget() pending roots.
+     * @time complexity: O(stepBudget()) = O(c + log(n)), plus O(a*log(n)) if the call added a pending roots
+     */
+    private void payStepDebt(int owed) {
+        this.stepDebt += owed;
+        int budget = this.stepBudget();
+        int steps = this.consolidateSteps((int) Math.min(this.stepDebt, budget), budget);
+        this.lastStepCount = steps;
+        // with no pending roots left there is nothing more to pay for
+        this.stepDebt = (this.pendingCount == 0) ? 0 : Math.max(0, this.stepDebt - steps);
+    }
+
+    /**
+     * Returns the most steps one call runs for its debt, and the most roots left pending after it: c, plus two
+     * for every root a deleteMin can add, at most the largest possible rank.
+     * @time complexity: O(1)
+     */
+    int stepBudget() {
+        // rank <= log_phi(size) < 1.4405 * log2(size)
+        return this.stepsPerOperation + 2 * ((int) (1.4405 * (binlog(this.size) + 1)) + 1);
+    }
+
+    /**
+     * Runs steps steps of INCREMENTAL consolidation, and more while over pendingLimit roots are pending.
+     * A step takes the last pending root and either settles it in the empty slot of its rank, or links it with
+     * the settled root of that rank, at most one link a step. The winner of a link stays the last pending root,
+     * to be settled or linked again by the next step, so a root is settled within log_phi(n) + 1 steps.
+     * @post: minimum pointer stays on a root
+     * @return the number of steps run, fewer than steps if no pending root was left
+     * @time complexity: O(steps + a*log(n)) for a pending roots over pendingLimit
+     */
+    private int consolidateSteps(int steps, int pendingLimit) {
+        int pendingRoots = this.pendingCount;
+        int links = 0;
+        int done = 0;
+        while (this.pendingCount > 0 && (done < steps || this.pendingCount > pendingLimit)) {
+            done++;
+            HeapNode last = (this.settledStart == null ? this.treeListStart : this.settledStart).prev;
+            int rank = last.rank;
+            this.ensureRankSlots(rank + 2);
+            HeapNode other = this.rankSlots[rank];
+            if (other == null) {
+                // settles right before the old settledStart, which is where it already is
+                this.rankSlots[rank] = last;
+                this.settledStart = last;
+                this.pendingCount--;
+                continue;
+            }
+
+            this.forgetSettled(other);
+            HeapNode winner = (other.key < last.key) ? other : last;
+            HeapNode loser = (winner == last) ? other : last;
+            this.unlinkRoot(loser);
+            if (winner == other) {
+                // other takes the place of last as the last pending root
+                this.unlinkRoot(other);
+                this.treeCount++;
+                this.insertAsLastPending(other);
+            }
+            hangAsFirstChild(winner, loser);
+            if (loser == this.min) {
+                // equal keys
+                this.min = winner;
+            }
+            links++;
+        }
+        if (links > 0) {
+            this.recordConsolidation(pendingRoots, links);
+        }
+        return done;
+    }
+
+    /**
+     * Takes the root x out of the tree list in INCREMENTAL mode, and adds its children as pending roots.
+     * @post: updates tree count, marked count and the INCREMENTAL state; not size
+     * @time complexity: O(deg(x))
+     */
+    private void removeRootIncrementally(HeapNode x) {
+        if (this.isSettled(x)) {
+            this.forgetSettled(x);
+        } else {
+            this.pendingCount--;
+        }
+        this.unlinkRoot(x);
+        HeapNode child = x.child;
+        if (child == null) {
+            return;
+        }
+        HeapNode node = child;
+        do {
+            node.parent = null;
+            if (node.mark) {
+                node.mark = false;
+                this.markedCount--;
+            }
+            node = node.next;
+        } while (node != child);
+        this.spliceAtStart(child);
+        this.treeCount += x.rank;
+        this.pendingCount += x.rank;
+    }
+
+    /**
+     * Moves a settled root back to the pending roots, e.g. before its rank changes.
+     * @time complexity: O(1)
+     */
+    private void unsettle(HeapNode x) {
+        this.forgetSettled(x);
+        this.unlinkRoot(x);
+        this.treeCount++;
+        this.touch(x);
+        x.next = x;
+        x.prev = x;
+        this.spliceAtStart(x);
+        this.pendingCount++;
+    }
+
+    /**
+     * Returns true if x is a settled root, in INCREMENTAL mode.
+     * @time complexity: O(1)
+     */
+    private boolean isSettled(HeapNode x) {
+        return x.parent == null && x.rank < this.rankSlots.length && this.rankSlots[x.rank] == x;
+    }
+
+    /**
+     * Clears the slot of the settled root x and moves settledStart past it if needed. Leaves x in the tree list.
+     * @time complexity: O(1)
+     */
+    private void forgetSettled(HeapNode x) {
+        this.rankSlots[x.rank] = null;
+        if (this.settledStart == x) {
+            this.settledStart = (x.next == this.treeListStart) ? null : x.next;
+        }
+    }
+
+    /**
+     * Unlinks the root x from the tree list.
+     * @post: updates tree count and treeListStart pointer
+     * @time complexity: O(1)
+     */
+    private void unlinkRoot(HeapNode x) {
+        if (x.next == x) {
+            this.treeListStart = null;
+        } else {
+            this.touch(x.prev);
+            x.prev.next = x.next;
+            x.next.prev = x.prev;
+            if (this.treeListStart == x) {
+                this.treeListStart = x.next;
+            }
+        }
+        this.treeCount--;
+    }
+
+    /**
+     * Puts the circular list starting at first at the start of the tree list. Does not update counters.
+     * @time complexity: O(1)
+     */
+    private void spliceAtStart(HeapNode first) {
+        if (this.treeListStart != null) {
+            HeapNode last = first.prev;
+            HeapNode oldStart = this.treeListStart;
+            HeapNode oldEnd = oldStart.prev;
+            this.touch(oldEnd);
+            this.touch(last);
+            oldEnd.next = first;
+            first.prev = oldEnd;
+            last.next = oldStart;
+            oldStart.prev = last;
+        }
+        this.treeListStart = first;
+    }
+
+    /**
+     * Puts the lone node right after the other pending roots, before settledStart.
+     * @time complexity: O(1)
+     */
+    private void insertAsLastPending(HeapNode node) {
+        this.touch(node);
+        if (this.treeListStart == null) {
+            node.next = node;
+            node.prev = node;
+            this.treeListStart = node;
+            return;
+        }
+        HeapNode before = (this.settledStart == null) ? this.treeListStart : this.settledStart;
+        this.touch(before.prev);
+        node.prev = before.prev;
+        node.next = before;
+        before.prev.next = node;
+        before.prev = node;
+        if (this.treeListStart == this.settledStart) {
+            // no other pending roots
+            this.treeListStart = node;
+        }
+    }
+
+    /**
+     * Moves the roots just added at the end of the tree list, from start on, to the start of the list
+     * as pending roots, and settles all but stepBudget() of them.
+     * @time complexity: O(trees + stepBudget())
+     */
+    private void addPendingAtStart(HeapNode start, int trees) {
+        this.treeListStart = start;
+        this.pendingCount += trees;
+        this.payStepDebt(this.stepsPerOperation + 2 * trees);
+    }
+
+    /**
+     * Finds the minimum among the pending roots and the settled roots in rankSlots, in INCREMENTAL mode,
+     * without walking the rest of the tree list.
+     * @return node with minimal key in the heap, or null if empty
+     * @time complexity: O(stepBudget() + log(n))
+     */
+    private HeapNode findIncrementalMin() {
+        HeapNode min = null;
+        HeapNode node = this.treeListStart;
+        for (int i = this.pendingCount; i > 0; i--) {
+            if (min == null || node.key < min.key) {
+                min = node;
+            }
+            node = node.next;
+        }
+        for (HeapNode settled : this.rankSlots) {
+            if (settled != null && (min == null || settled.key < min.key)) {
+                min = settled;
+            }
+        }
+        return min;
+    }
+
+    /**
+     * Settles every root, after a full consolidate left at most one root per rank.
+     * @time complexity: O(t) for t trees
+     */
+    private void settleAll() {
+        this.resetIncrementalState();
+        if (this.treeListStart == null) {
+            return;
+        }
+        HeapNode node = this.treeListStart;
+        do {
+            this.ensureRankSlots(node.rank + 2);
+            this.rankSlots[node.rank] = node;
+            node = node.next;
+        } while (node != this.treeListStart);
+        this.settledStart = this.treeListStart;
+        this.pendingCount = 0;
+    }
+
+    /**
+     * Makes every root pending and clears the rank slots.
+     * @time complexity: O(log(n))
+     */
+    private void resetIncrementalState() {
+        Arrays.fill(this.rankSlots, null);
+        this.settledStart = null;
+        this.pendingCount = (this.treeListStart == null) ? 0 : this.treeCount;
+        this.stepDebt = 0;
+    }
+
+    /**
+     * Grows the rank slots, at least doubling them, so they can hold ranks below length.
+     * @time complexity: O(length) when growing, else O(1)
+     */
+    private void ensureRankSlots(int length) {
+        if (length > this.rankSlots.length) {
+            this.rankSlots = Arrays.copyOf(this.rankSlots, Math.max(length, 2 * this.rankSlots.length));
+        }
+    }
+
+    /**
+     * Sets when deleteMin, drainTo and delete of the minimum consolidate the root list.
+     * Switching to INCREMENTAL consolidates the heap once, so no deleteMin after it has to scan a long
+     * list of roots that were never consolidated. Changing only the factor of INCREMENTAL keeps its state.
+     * @param factor the c of ConsolidationPolicy.THRESHOLD, or the steps per operation of INCREMENTAL
+     *               (rounded up), ignored by EAGER
+     * @time complexity: O(1), or O(t) for t trees when switching to INCREMENTAL
+     */
+    public void setConsolidationPolicy(ConsolidationPolicy policy, double factor) {
+        if (policy == null) {
+            throw new NullPointerException("policy");
+        }
+        if (!(factor > 0)) {
+            throw new IllegalArgumentException("factor must be positive, got " + factor);
+        }
+        ConsolidationPolicy oldPolicy = this.consolidationPolicy;
+        if (policy != ConsolidationPolicy.INCREMENTAL || oldPolicy != ConsolidationPolicy.INCREMENTAL) {
+            this.resetIncrementalState();
+        }
+        this.consolidationPolicy = policy;
+        this.consolidationFactor = factor;
+        this.stepsPerOperation = (int) Math.min(Integer.MAX_VALUE / 4, Math.ceil(factor));
+        if (policy == ConsolidationPolicy.INCREMENTAL && oldPolicy != ConsolidationPolicy.INCREMENTAL
+                && !this.isEmpty()) {
+            // settles every root, see consolidate()
+            this.consolidate();
+        } else if (policy == ConsolidationPolicy.INCREMENTAL && !this.isEmpty()) {
+            // a smaller c lowers stepBudget(), so settle down to it
+            this.payStepDebt(0);
+        }
+    }
+
+    /**
+     * Sets the consolidation policy, keeping the current factor.
+     * @time complexity: O(1)
+     */
+    public void setConsolidationPolicy(ConsolidationPolicy policy) {
+        this.setConsolidationPolicy(policy, this.consolidationFactor);
+    }
+
+    /**
+     * Returns the consolidation policy.
+     * @time complexity: O(1)
+     */
+    public ConsolidationPolicy getConsolidationPolicy() {
+        return this.consolidationPolicy;
+    }
+
+    /**
+     * Deletes the k nodes with the smallest keys, or all nodes if the heap holds fewer.
+     * @return the deleted keys in ascending order
+     * @time complexity: O(t + k*log(n)) for t trees, amortized
+     */
+    public int[] deleteMin(int k) {
+        int[] keys = new int[Math.max(0, Math.min(k, this.size))];
+        this.drainTo(keys, keys.length);
+        return keys;
+    }
+
+    /**
+     * Deletes the k nodes with the smallest keys, or all nodes if the heap holds fewer, and writes their keys
+     * to out in ascending order. The nodes are taken off a binary heap over the roots, and the children of
+     * every taken node join it, as in kMin. The heap is consolidated once at the end.
+     * @pre: out.length >= min(k, size)
+     * @return the number of deleted nodes
+     * @post: update minimum pointer, found by consolidate
+     * @time complexity: O(t + k*log(n)) for t trees, amortized
+     */
+    public int drainTo(int[] out, int k) {
+        this.beforeChange();
+        if (this.isEmpty() || k <= 0) {
+            return 0;
+        }
+        if (k > this.size) {
+            k = this.size;
+        }
+        // the frontier always holds the roots of the trees that are left
+        BinaryHeap frontier = new BinaryHeap(this.treeCount + k);
+        frontier.insertBunch(this.treeListStart);
+        int markedRemoved = 0;
+        for (int i = 0; i < k; i++) {
+            HeapNode node = frontier.getMin();
+            frontier.deleteMin();
+            out[i] = node.key;
+            if (node.mark) {
+                markedRemoved++;
+            }
+            HeapNode child = node.child;
+            if (child != null) {
+                do {
+                    frontier.insert(child);
+                    child = child.next;
+                } while (child != node.child);
+            }
+            release(node);
+        }
+
+        // link the frontier into the new tree list
+        HeapNode start = null;
+        for (int i = 1; i <= frontier.size; i++) {
+            HeapNode node = frontier.get(i);
+            this.touch(node);
+            node.parent = null;
+            if (node.mark) {
+                node.mark = false;
+                markedRemoved++;
+            }
+            if (start == null) {
+                start = node;
+                node.next = node;
+                node.prev = node;
+            } else {
+                HeapNode last = start.prev;
+                last.next = node;
+                node.prev = last;
+                node.next = start;
+                start.prev = node;
+            }
+        }
+        this.treeListStart = start;
+        this.treeCount = frontier.size;
+        this.size -= k;
+        this.markedCount -= markedRemoved;
+        this.consolidateByPolicy();
+        return k;
+    }
+
+    /**
+     * delete minimum and don't update the minimum pointer
+     * @post: updates size, marked count, and tree count
+     * @post: update treeListStart pointer
+     * @time complexity: O(log(n)).
+     */
+    private void deleteMinAndDontFindNew(){
+        if(this.isEmpty()){
+            return;
+        }
+        int unmarkCounter = 0;
+        int treeCounter = 0;
+        // prepare children for insertion
+        HeapNode child = this.min.child;
+        HeapNode inPlaceOfMin; // for use in updating start of list
+        if (child != null) {
+            HeapNode node = child;
+            do {
+                node.parent = null;
+                if (node.isMarked()) {
+                    unmarkCounter++;
+                    node.unMark();
+                }
+                treeCounter++;
+                node = node.next;
+            } while (node != child);
+            // insert child
+            addInsteadOfMin(child);
+            inPlaceOfMin = child;
+        } else{
+            HeapNode afterMin = this.min.next;
+            HeapNode beforeMin = this.min.prev;
+            this.touch(beforeMin);
+            beforeMin.next = afterMin;
+            afterMin.prev = beforeMin;
+            inPlaceOfMin = afterMin;
+        }
+        // remove min from the heap
+        treeCounter--;
+
+        if (this.min == this.treeListStart){
+            if (size == 1) { // after deletion the tree is empty
+                this.treeListStart = null;
+            }
+            else {
+                this.treeListStart = inPlaceOfMin;
+            }
+        }
+        // update fields
+        this.addToCounters(treeCounter, -1, -unmarkCounter);
+    }
+
+    /**
+     * Inserts a sequence of HeapNodes instead of min
+     * @param startListToInsert the first node in the inserted sequence
+     * @post: min is not disconnected from heap list
+     * @time complexity: O(1)
+     */
+    private void addInsteadOfMin(HeapNode startListToInsert) {
+        HeapNode endListToInsert = startListToInsert.prev;
+        HeapNode afterMin = this.min.next;
+        HeapNode beforeMin = this.min.prev;
+
+        if (afterMin == this.min){
+            this.treeListStart = startListToInsert;
+            return;
+        }
+
+        this.touch(beforeMin);
+        this.touch(endListToInsert);
+        beforeMin.next = startListToInsert;
+        startListToInsert.prev = beforeMin;
+        endListToInsert.next = afterMin;
+        afterMin.prev = endListToInsert;
+    }
+    
+    /**
+     * Computes base 2 log
+     * @param bits: the number to take log from
+     * @return log2(bits)
+     * @time complexity: O(1)
+     */
+    private static int binlog(int bits){
+        int log = 0;
+        if((bits & 0xffff0000) != 0) {bits >>>= 16; log = 16;}
+        if(bits >= 256) { bits >>>= 8; log += 8; }
+        if(bits >= 16) { bits >>>= 4; log += 4; }
+        if(bits >= 4) { bits >>>= 2; log += 2; }
+        return log + (bits >>> 1);
+    }
+
+    /**
+     * Makes sure the rank buckets can hold ranks up to maxRank.
+     * A tree of rank r has at least phi^r nodes, so this grows O(log(n)) times over the life of the heap.
+     * @time complexity: O(1) amortized
+     */
+    private void ensureBuckets(int maxRank){
+        if (maxRank < buckets.length){
+            return;
+        }
+        HeapNode[] grown = new HeapNode[Math.max(maxRank + 1, 2 * buckets.length)];
+        System.arraycopy(buckets, 0, grown, 0, buckets.length);
+        buckets = grown;
+    }
+    /**
+     * Consolidate trees in the heap until we have a binomial heap
+     * @post: updates tree count and link count
+     * @post: updates treeListStart pointer
+     * @post: updates minimum pointer, picked from the consolidated roots while rebuilding the list
+     * @time complexity: O(n)
+     */
+    protected void consolidate(){
+        this.beforeChange();
+        if (this.size < 1){
+            this.min = null;
+            return;
+        }
+        // rank <= log_phi(size) < 1.4405 * log2(size)
+        ensureBuckets((int) (1.4405 * (binlog(size) + 1)) + 1);
+        HeapNode[] buckets = this.buckets;
+
+        int linkCounter = 0;
+        int rootCount = treeCount;
+        int maxRank = 0;
+        HeapNode tree = treeListStart;
+        for (int i = 0; i < treeCount;) {
+            int rank = tree.rank;
+            if (rank >= buckets.length){
+                // only reachable if the rank bound was broken from outside, e.g. by cutNode
+                ensureBuckets(rank + 1);
+                buckets = this.buckets;
+            }
+            if (buckets[rank] == null){
+                // bucket is empty
+                buckets[rank] = tree;
+                maxRank = (maxRank > rank)? maxRank : rank;
+                tree = tree.next;
+                i++;
+                continue; // avoid nested ifs
+            }
+            //else
+            // bucket is filled, connect nodes;
+            tree = connectTrees(buckets[rank], tree);
+            linkCounter++;
+            // empty the bucket
+            buckets[rank] = null;
+        }
+
+        // order new list
+        int treeCounter = 0;
+        HeapNode newStartOfList = null;
+        HeapNode newMin = null;
+        for (int rank = 0; rank <= maxRank; rank++){
+            HeapNode node = buckets[rank];
+            if (node == null){
+                continue;
+            }
+            buckets[rank] = null; // leave the buckets empty for the next call
+            treeCounter++; // count trees
+            if (newMin == null || node.key < newMin.key){
+                newMin = node;
+            }
+            this.touch(node);
+            if (newStartOfList == null){
+                // first time
+                node.next = node;
+                node.prev = node;
+                newStartOfList = node;
+            } else{
+                // connect to existing list
+                HeapNode last = newStartOfList.prev;
+                last.next = node;
+                node.prev = last;
+                node.next = newStartOfList;
+                newStartOfList.prev = node;
+            }
+        }
+        // update heap fields and pointers
+        this.treeListStart = newStartOfList;
+        this.treeCount = treeCounter;
+        this.min = newMin;
+        this.recordConsolidation(rootCount, linkCounter);
+        if (this.consolidationPolicy == ConsolidationPolicy.INCREMENTAL) {
+            this.settleAll();
+        }
+    }
+
+    /**
+     * Consolidates the trees like consolidate(), splitting the work of a long root list over the pool.
+     * The roots are cut into ranges of PARALLEL_LEAF roots, each range links its trees into its own rank
+     * buckets, and the buckets of two ranges are merged by adding them like binary numbers.
+     * Root lists shorter than PARALLEL_THRESHOLD are consolidated sequentially.
+     * @post: same as consolidate()
+     * @time complexity: O(t/p + log(t)*log(n)) with p workers, plus O(t) to collect the t roots
+     */
+    public void consolidate(ForkJoinPool pool) {
+        this.beforeChange();
+        if (this.treeCount < PARALLEL_THRESHOLD || pool.getParallelism() < 2) {
+            consolidate();
+            return;
+        }
+        int rootCount = this.treeCount;
+        HeapNode[] roots = new HeapNode[rootCount];
+        HeapNode tree = this.treeListStart;
+        int maxRank = 0;
+        for (int i = 0; i < rootCount; i++) {
+            roots[i] = tree;
+            maxRank = Math.max(maxRank, tree.rank);
+            tree = tree.next;
+        }
+        // linking t trees carries at most log2(t) ranks above the largest one
+        int bucketCount = maxRank + binlog(rootCount) + 2;
+        HeapNode[] buckets = pool.invoke(new ConsolidateTask(this, roots, 0, rootCount, bucketCount));
+
+        int treeCounter = 0;
+        HeapNode newStartOfList = null;
+        HeapNode newMin = null;
+        for (HeapNode node : buckets) {
+            if (node == null) {
+                continue;
+            }
+            treeCounter++;
+            if (newMin == null || node.key < newMin.key) {
+                newMin = node;
+            }
+            this.touch(node);
+            if (newStartOfList == null) {
+                node.next = node;
+                node.prev = node;
+                newStartOfList = node;
+            } else {
+                HeapNode last = newStartOfList.prev;
+                last.next = node;
+                node.prev = last;
+                node.next = newStartOfList;
+                newStartOfList.prev = node;
+            }
+        }
+        this.treeListStart = newStartOfList;
+        this.treeCount = treeCounter;
+        this.min = newMin;
+        // every link takes one root away
+        this.recordConsolidation(rootCount, rootCount - treeCounter);
+        if (this.consolidationPolicy == ConsolidationPolicy.INCREMENTAL) {
+            this.settleAll();
+        }
+    }
+
+    /**
+     * Links the trees of roots[from, to) into rank buckets, forking halves above PARALLEL_LEAF roots.
+     * Only touches the child lists of the roots in its range, and never their next and prev pointers.
+     */
+    private static class ConsolidateTask extends RecursiveTask<HeapNode[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final FibonacciHeap heap;
+        private final HeapNode[] roots;
+        private final int from;
+        private final int to;
+        private final int bucketCount;
+
+        private ConsolidateTask(FibonacciHeap heap, HeapNode[] roots, int from, int to, int bucketCount) {
+            this.heap = heap;
+            this.roots = roots;
+            this.from = from;
+            this.to = to;
+            this.bucketCount = bucketCount;
+        }
+
+        /**
+         * @time complexity: O(to - from) work, O(log(to - from)*log(n)) span
+         */
+        @Override
+        protected HeapNode[] compute() {
+            if (this.to - this.from <= PARALLEL_LEAF) {
+                HeapNode[] buckets = new HeapNode[this.bucketCount];
+                for (int i = this.from; i < this.to; i++) {
+                    this.addWithCarry(buckets, this.roots[i]);
+                }
+                return buckets;
+            }
+            int middle = (this.from + this.to) >>> 1;
+            ConsolidateTask left = new ConsolidateTask(this.heap, this.roots, this.from, middle, this.bucketCount);
+            left.fork();
+            HeapNode[] buckets = new ConsolidateTask(this.heap, this.roots, middle, this.to, this.bucketCount)
+                    .compute();
+            HeapNode[] leftBuckets = left.join();
+            for (HeapNode tree : leftBuckets) {
+                if (tree != null) {
+                    this.addWithCarry(buckets, tree);
+                }
+            }
+            return buckets;
+        }
+
+        /**
+         * Puts tree in the bucket of its rank, linking it with the trees already there as long as it has to.
+         * @time complexity: O(log(n))
+         */
+        private void addWithCarry(HeapNode[] buckets, HeapNode tree) {
+            int rank = tree.rank;
+            while (buckets[rank] != null) {
+                HeapNode other = buckets[rank];
+                tree = other.key < tree.key
+                        ? this.heap.hangAsFirstChild(other, tree) : this.heap.hangAsFirstChild(tree, other);
+                buckets[rank] = null;
+                rank++;
+            }
+            buckets[rank] = tree;
+        }
+    }
+
+    /**
+     * Connect two trees such that the smaller one is at the top
+     * @param tree1 was first in order in the original list
+     * @param tree2 was second in order in the original list
+     * @return the root of the connected two nodes (smaller key)
+     * @post: $ret.next == tree2.next
+     * @time complexity: O(1)
+     */
+    private HeapNode connectTrees(HeapNode tree1, HeapNode tree2){
+        // pointer assignment for readability
+        HeapNode smaller = tree1.key < tree2.key? tree1 : tree2;
+        HeapNode larger = tree1.key < tree2.key? tree2 : tree1;
+
+        this.touch(smaller);
+        smaller.next = tree2.next;
+        return hangAsFirstChild(smaller, larger);
+    }
+
+    /**
+     * Inserts child as the first child of parent and updates the rank of parent.
+     * Overwrites the next and prev pointers of child, and leaves those of parent alone.
+     * @pre: parent.key <= child.key
+     * @return parent
+     * @time complexity: O(1)
+     */
+    private HeapNode hangAsFirstChild(HeapNode parent, HeapNode child) {
+        HeapNode childStart = parent.child;
+        this.touch(parent);
+        this.touch(child);
+        child.parent = parent;
+        if (childStart != null) {
+            HeapNode childEnd = childStart.prev;
+            this.touch(childEnd);
+            child.next = childStart;
+            childStart.prev = child;
+            childEnd.next = child;
+            child.prev = childEnd;
+        } else {
+            child.next = child;
+            child.prev = child;
+        }
+        parent.child = child;
+        parent.rank++;
+        return parent;
+    }
+
+
+   /**
+    * Goes over the nodes in the heap and finds the one with minimal key.
+    * @return node with minimal key in the heap, or null if empty
+    * @time complexity: O(n).
+    */
+    public HeapNode findNewMin() {
+        if (this.isEmpty()){
+            return null;
+        }
+
+    	HeapNode min = this.treeListStart;
+        HeapNode node = this.treeListStart.next;
+        while (node != this.treeListStart) {
+            if (node.key < min.key){
+                min = node;
+            }
+            node = node.next;
+        }
+
+        return min;
+    }
+
+
+    /**
+     * _INCREASES_ counter fields by the given values.
+     * @pre: values can be negative to decrease.
+     * @post: updates all instance counters
+     * @time complexity: O(1)
+     */
+    private void addToCounters(int treeCount,
+                               int size,
+                               int markedCount){
+        this.treeCount += treeCount;
+        this.size += size;
+        this.markedCount += markedCount;
+    }
+
+   /**
+    * public void meld (FibonacciHeap heap2)
+    *
+    * Melds heap2 with the current heap.
+    * @time complexity: O(1).
+    */
+    public void meld (FibonacciHeap heap2) {
+        this.beforeChange();
+        heap2.beforeChange();
+        this.adoptSnapshots(heap2);
+        if (heap2.isEmpty()){
+            return;
+        }
+
+        if (this.isEmpty() || heap2.min.key < this.min.key){
+            this.min = heap2.min;
+        }
+
+        this.addToEndOfTreeList(heap2.treeListStart);
+        this.addToCounters(
+                heap2.getTreeCount(),
+                heap2.getSize(),
+                heap2.getMarkedCount());
+        if (this.consolidationPolicy == ConsolidationPolicy.INCREMENTAL) {
+            this.addPendingAtStart(heap2.treeListStart, heap2.getTreeCount());
+        }
+    }
+
+    /**
+     * Adds to the end of trees list
+     * @param startListToInsert node at the end of the new list (can be one long)
+     *                   Should have correct prev and next pointers
+     * @post: update treeListStart pointer
+     * @time complexity: O(1).
+     */
+    private void addToEndOfTreeList(HeapNode startListToInsert){
+        if (this.isEmpty()) {
+            this.treeListStart = startListToInsert;
+            return;
+        }
+        HeapNode startOrigin = this.treeListStart;
+        HeapNode lastOrigin = startOrigin.prev;
+        HeapNode lastListToInsert = startListToInsert.prev;
+
+        // concatenate
+        this.touch(lastOrigin);
+        this.touch(lastListToInsert);
+        lastOrigin.next = startListToInsert;
+        startListToInsert.prev = lastOrigin;
+        lastListToInsert.next = startOrigin;
+        startOrigin.prev = lastListToInsert;
+    }
+
+
+   /**
+    * public int size()
+    *
+    * Returns the number of elements in the heap.
+    * @time complexity: O(1)
+    */
+    public int size() {
+    	return this.size;
+    }
+    	
+    /**
+    * public int[] countersRep()
+    *
+    * Return an array of counters. The i-th entry contains the number of trees of order i in the heap.
+    * (Note: The size of the array depends on the maximum order of a tree.)
+    * @time complexity: O(n)
+    */
+    public int[] countersRep() {
+        if (this.isEmpty()){
+            return new int[]{};
+        }
+        // first pass finds the size of the array, second pass counts
+        int actualMaxRank = 0;
+        HeapNode tree = treeListStart;
+        do {
+            actualMaxRank = (actualMaxRank > tree.rank)? actualMaxRank : tree.rank;
+            tree = tree.next;
+        } while (tree != treeListStart);
+        int[] arr = new int[actualMaxRank + 1];
+        do {
+            arr[tree.rank]++;
+            tree = tree.next;
+        } while (tree != treeListStart);
+        return arr;
+    }
+	
+   /**
+    * public void delete(HeapNode x)
+    *
+    * Deletes the node x from the heap.
+	* It is assumed that x indeed belongs to the heap.
+    * Unless x is the minimum, x is cut from its parent (with cascading cuts) and its children join the tree list.
+    * The key of x is left as it is and nothing is consolidated: the minimum stays where it is, so the trees
+    * wait for the next deleteMin.
+    * @time complexity: O(log(n)) amortized, O(deg(x)) if x is not the minimum.
+    */
+    public void delete(HeapNode x) {
+        this.beforeChange();
+        if (x == this.min) {
+            this.deleteMin();
+            return;
+        }
+
+        int cuts = 0;
+        if (x.getParent() != null) {
+            cuts = this.cascadingCut(x);
+            this.recordCuts(cuts);
+        }
+        if (this.consolidationPolicy == ConsolidationPolicy.INCREMENTAL) {
+            int rank = x.rank;
+            this.removeRootIncrementally(x);
+            this.size--;
+            this.payStepDebt(this.stepsPerOperation + 2 * (cuts + rank));
+        } else {
+            this.removeRoot(x);
+            this.size--;
+        }
+        this.release(x);
+    }
+
+    /**
+     * Takes the root x out of the tree list and puts its children in its place.
+     * @pre: x is a root and not the only one
+     * @post: updates tree count, marked count and treeListStart pointer
+     * @time complexity: O(deg(x)).
+     */
+    private void removeRoot(HeapNode x) {
+        HeapNode before = x.prev;
+        HeapNode after = x.next;
+        HeapNode child = x.child;
+        this.touch(before);
+        if (child == null) {
+            before.next = after;
+            after.prev = before;
+            if (this.treeListStart == x) {
+                this.treeListStart = after;
+            }
+            this.treeCount--;
+            return;
+        }
+
+        HeapNode node = child;
+        do {
+            node.parent = null;
+            if (node.mark) {
+                node.mark = false;
+                this.markedCount--;
+            }
+            node = node.next;
+        } while (node != child);
+
+        HeapNode lastChild = child.prev;
+        this.touch(lastChild);
+        before.next = child;
+        child.prev = before;
+        lastChild.next = after;
+        after.prev = lastChild;
+        if (this.treeListStart == x) {
+            this.treeListStart = child;
+        }
+        this.treeCount += x.rank - 1;
+    }
+
+   /**
+    * public void decreaseKey(HeapNode x, int delta)
+    *
+    * Decreases the key of the node x by a non-negative value delta. The structure of the heap should be updated
+    * to reflect this change (for example, the cascading cuts procedure should be applied if needed).
+    * @time complexity: O(log(n)).
+    */
+    public void decreaseKey(HeapNode x, int delta) {
+        this.beforeChange();
+        if (this.isEmpty() || x == null || delta < 0) {
+            return;
+        }
+        this.decreaseKeyTo(x, x.key - delta);
+    }
+
+    /**
+     * Sets the key of x to a key not larger than its current one and restores heap order.
+     * @pre: newKey <= x.key
+     * @time complexity: O(1) amortized.
+     */
+    private void decreaseKeyTo(HeapNode x, int newKey) {
+        HeapNode keyToDecrease = x;
+        this.touch(x);
+        x.key = newKey;
+        int decreasedValue = x.key;
+
+        if (x.getParent() == null) {
+            if (x.getKey() <= this.min.getKey())
+                this.min = x;
+            return;
+        }
+
+        if (x.getParent().getKey() < x.getKey()) {
+            return;
+        }
+
+        //if we got here, we need to cut x.
+        int cuts = this.cascadingCut(x);
+        this.recordCuts(cuts);
+
+        // update min.
+        if (decreasedValue <= this.min.getKey()) {
+            min = keyToDecrease;
+        }
+        if (this.consolidationPolicy == ConsolidationPolicy.INCREMENTAL) {
+            this.payStepDebt(this.stepsPerOperation + 2 * cuts);
+        }
+    }
+
+   /**
+    * public void increaseKey(HeapNode x, int delta)
+    *
+    * Increases the key of the node x by a non-negative value delta. Every child of x whose key is now smaller
+    * is cut to the tree list, with the usual marking and cascading cuts. If x was the minimum, the new one
+    * is found among the roots. A key that would pass Integer.MAX_VALUE stops at Integer.MAX_VALUE.
+    * @time complexity: O(deg(x)) amortized, plus O(t) for t trees if x was the minimum.
+    */
+    public void increaseKey(HeapNode x, int delta) {
+        this.beforeChange();
+        if (this.isEmpty() || x == null || delta < 0) {
+            return;
+        }
+        this.increaseKeyTo(x, (int) Math.min(Integer.MAX_VALUE, (long) x.key + delta));
+    }
+
+   /**
+    * public void updateKey(HeapNode x, int newKey)
+    *
+    * Sets the key of the node x to newKey, which may be smaller or larger than the current one,
+    * e.g. to postpone a task without a delete and an insert.
+    * @time complexity: as decreaseKey if newKey is smaller, else as increaseKey.
+    */
+    public void updateKey(HeapNode x, int newKey) {
+        this.beforeChange();
+        if (this.isEmpty() || x == null) {
+            return;
+        }
+        if (newKey <= x.key) {
+            this.decreaseKeyTo(x, newKey);
+        } else {
+            this.increaseKeyTo(x, newKey);
+        }
+    }
+
+    /**
+     * Sets the key of x to a key not smaller than its current one and restores heap order.
+     * @pre: newKey >= x.key
+     * @time complexity: O(deg(x)) amortized, plus O(t) for t trees if x was the minimum.
+     */
+    private void increaseKeyTo(HeapNode x, int newKey) {
+        this.touch(x);
+        x.key = newKey;
+        HeapNode child = x.child;
+        int cuts = 0;
+        if (child != null) {
+            // a cut moves the child to the tree list, so read next first
+            int count = x.rank;
+            for (int i = 0; i < count; i++) {
+                HeapNode next = child.next;
+                if (child.key < newKey) {
+                    cuts += this.cascadingCut(child);
+                }
+                child = next;
+            }
+            this.recordCuts(cuts);
+        }
+        if (this.consolidationPolicy == ConsolidationPolicy.INCREMENTAL) {
+            // a link may move the minimum pointer off x, so look first
+            boolean wasMin = x == this.min;
+            this.payStepDebt(this.stepsPerOperation + 2 * cuts);
+            if (wasMin) {
+                this.min = this.findIncrementalMin();
+            }
+        } else if (x == this.min) {
+            this.min = this.findNewMin();
+        }
+    }
+
+    /**
+     * Cuts x from its parent, then cuts every marked ancestor on the way up,
+     * and marks the first unmarked ancestor unless it is a root.
+     * @pre: x.parent != null
+     * @return the number of cuts, x included
+     * @time complexity: O(1) amortized.
+     */
+    private int cascadingCut(HeapNode x) {
+        int cuts = 0;
+        while (true) {
+            HeapNode parent = x.parent;
+            linkToTreeList(x);
+            cuts++;
+            if (x.isMarked()) {
+                x.mark = false;
+                this.markedCount--;
+            }
+            if (parent.getParent() == null) {
+                return cuts;
+            }
+            if (!parent.isMarked()) {
+                parent.mark = true;
+                this.markedCount++;
+                return cuts;
+            }
+            x = parent;
+        }
+    }
+
+    /**
+     * Cuts the connection between two nodes.
+     * @time complexity: O(1).
+     */
+    public void cutNode(HeapNode x) {
+        this.beforeChange();
+        linkToTreeList(x);
+        this.recordCuts(1);
+    }
+
+    /**
+     * Cuts x from its parent and moves it to the start of the tree list, without counting the cut.
+     * @time complexity: O(1).
+     */
+    private void linkToTreeList(HeapNode x) {
+        if (this.consolidationPolicy == ConsolidationPolicy.INCREMENTAL) {
+            // a settled parent changes rank, so it goes back to the pending roots
+            if (this.isSettled(x.getParent())) {
+                this.unsettle(x.getParent());
+            }
+            this.pendingCount++;
+        }
+        this.touch(x.getParent());
+        this.touch(x.getPrev());
+        this.touch(x);
+        this.touch(this.treeListStart.getPrev());
+        x.getParent().rank--;
+
+        if (x.getParent().getChild() == x) {
+            if (x.getNext() == x)
+                x.getParent().child = null;
+            else
+                x.getParent().child = x.getNext();
+        }
+
+        x.parent = null;
+
+        HeapNode nextNode = x.getNext();
+        HeapNode prevNode = x.getPrev();
+        prevNode.next = nextNode;
+        nextNode.prev = prevNode;
+
+        x.next = x;
+        x.prev = x;
+
+        x.prev = this.treeListStart.getPrev();
+        x.getPrev().next = x;
+        x.next = this.treeListStart;
+        this.treeListStart.prev = x;
+        this.treeListStart = x;
+
+        treeCount++;
+    }
+
+    /**
+     * Adds one consolidation pass to the statistics of this heap and to the global ones.
+     * @time complexity: O(1).
+     */
+    private void recordConsolidation(int rootCount, int links) {
+        this.stats.recordConsolidation(rootCount, links);
+        GLOBAL_STATS.recordConsolidation(rootCount, links);
+    }
+
+    /**
+     * Adds the cuts of one operation to the statistics of this heap and to the global ones.
+     * @param cuts number of cuts, the first one included; cuts - 1 of them are cascading
+     * @time complexity: O(1).
+     */
+    private void recordCuts(int cuts) {
+        if (cuts == 0) {
+            return;
+        }
+        this.stats.recordCuts(cuts);
+        GLOBAL_STATS.recordCuts(cuts);
+    }
+
+    /**
+     * Returns the operation statistics of this heap.
+     * @time complexity: O(1).
+     */
+    public HeapStats getStats() {
+        return this.stats;
+    }
+
+    /**
+     * Returns the operation statistics summed over every heap in the program.
+     * @time complexity: O(1).
+     */
+    public static HeapStats getGlobalStats() {
+        return GLOBAL_STATS;
+    }
+
+   /**
+    * public int nonMarked() 
+    *
+    * This function returns the current number of non-marked items in the heap
+    * @time complexity: O(1).
+    */
+    public int nonMarked() {
+        if (this.isEmpty()) {
+            return 0;
+        }
+
+        return this.getSize() - this.getMarkedCount();
+    }
+
+   /**
+    * public int potential() 
+    *
+    * This function returns the current potential of the heap, which is:
+    * Potential = #trees + 2*#marked
+    *
+    * In words: The potential equals to the number of trees in the heap
+    * plus twice the number of marked nodes in the heap.
+    * @time complexity: O(1).
+    */
+    public int potential() {
+        if (this.isEmpty()) {
+            return 0;
+        }
+
+        return this.treeCount + (2 * this.markedCount);
+    }
+
+   /**
+    * public static int totalLinks()
+    *
+    * This static function returns the total number of link operations made during the
+    * run-time of the program. A link operation is the operation which gets as input two
+    * trees of the same rank, and generates a tree of rank bigger by one, by hanging the
+    * tree which has larger value in its root under the other tree.
+    * @time complexity: O(1).
+    */
+    public static long totalLinks() {
+        return GLOBAL_STATS.getLinks();
+    }
+
+   /**
+    * public static int totalCuts() 
+    *
+    * This static function returns the total number of cut operations made during the
+    * run-time of the program. A cut operation is the operation which disconnects a subtree
+    * from its parent (during decreaseKey/delete methods). 
+    * @time complexity: O(1).
+    */
+    public static long totalCuts() {
+        return GLOBAL_STATS.getCuts();
+    }
+
+     /**
+    * public static int[] kMin(FibonacciHeap H, int k) 
+    *
+    * This static function returns the k smallest elements in a Fibonacci heap, in ascending order.
+    * The heap may hold any number of trees. If it holds fewer than k nodes, all of its keys are returned.
+    *  
+    * ###CRITICAL### : you are NOT allowed to change H.
+    * @time complexity: O(t*log(k) + k*deg(H)*log(k*deg(H))) for t trees.
+    */
+    public static int[] kMin(FibonacciHeap H, int k) {
+        HeapNode[] nodes = kMinNodes(H, k);
+        int[] minimalNodes = new int[nodes.length];
+        for (int i = 0; i < nodes.length; i++) {
+            minimalNodes[i] = nodes[i].key;
+        }
+        return minimalNodes;
+    }
+
+    /**
+    * public static HeapNode[] kMinNodes(FibonacciHeap H, int k)
+    *
+    * Returns the nodes of the k smallest elements in H, in ascending order of key, without changing H.
+    * The frontier starts from the k smallest roots, and every taken node adds its children to it,
+    * so it holds at most k*(deg(H)+1) nodes no matter how large H is.
+    * @time complexity: O(t*log(k) + k*deg(H)*log(k*deg(H))) for t trees.
+    */
+    public static HeapNode[] kMinNodes(FibonacciHeap H, int k) {
+        if (H.isEmpty() || k <= 0){
+            return new HeapNode[0];
+        }
+        k = Math.min(k, H.size);
+        HeapNode[] minimalNodes = new HeapNode[k];
+        HeapNode[] roots = smallestRoots(H.treeListStart, k);
+        // rank <= log_phi(size) < 1.4405 * log2(size)
+        int maxRank = (int) (1.4405 * (binlog(H.size) + 1)) + 1;
+        BinaryHeap helper = new BinaryHeap((int) Math.min(H.size, (long) k * (maxRank + 1)));
+        for (HeapNode root : roots) {
+            helper.insert(root);
+        }
+        for (int i = 0; i < k; i++) {
+            HeapNode node = helper.getMin();
+            minimalNodes[i] = node;
+            helper.deleteMin();
+            HeapNode child = node.child;
+            if (child != null && i < k - 1) {
+                // one sift up per child; insertBunch would heapify the whole frontier again
+                do {
+                    helper.insert(child);
+                    child = child.next;
+                } while (child != node.child);
+            }
+        }
+        return minimalNodes;
+    }
+
+    /**
+     * Returns the k roots with the smallest keys, in no particular order, or all roots if there are fewer.
+     * Keeps the candidates in a max-heap of size k, so a long root list costs no more memory than a short one.
+     * @time complexity: O(t*log(k)) for t trees.
+     */
+    private static HeapNode[] smallestRoots(HeapNode start, int k) {
+        HeapNode[] largest = new HeapNode[k];
+        int count = 0;
+        HeapNode node = start;
+        do {
+            if (count < k) {
+                // sift up
+                int i = count++;
+                while (i > 0 && largest[(i - 1) / 2].key < node.key) {
+                    largest[i] = largest[(i - 1) / 2];
+                    i = (i - 1) / 2;
+                }
+                largest[i] = node;
+            } else if (node.key < largest[0].key) {
+                // replace the largest and sift down
+                int i = 0;
+                while (true) {
+                    int child = 2 * i + 1;
+                    if (child >= k) {
+                        break;
+                    }
+                    if (child + 1 < k && largest[child + 1].key > largest[child].key) {
+                        child++;
+                    }
+                    if (largest[child].key <= node.key) {
+                        break;
+                    }
+                    largest[i] = largest[child];
+                    i = child;
+                }
+                largest[i] = node;
+            }
+            node = node.next;
+        } while (node != start);
+        return count < k ? Arrays.copyOf(largest, count) : largest;
+    }
+
+    /**
+    * public PrimitiveIterator.OfInt sortedIterator()
+    *
+    * Returns a lazy iterator over the keys of the heap in ascending order, which does not change the heap.
+    * Each key costs O(deg(H)*log(n)) on the frontier, so reading the first m keys costs O(t + m*deg(H)*log(n))
+    * instead of a copy of the heap. The heap must not be changed while iterating.
+    * @time complexity: O(t) to create, for t trees.
+    */
+    public PrimitiveIterator.OfInt sortedIterator() {
+        return new SortedKeyIterator(this);
+    }
+
+    /**
+    * public Spliterator.OfInt sortedSpliterator()
+    *
+    * Returns a sequential, SORTED and SIZED spliterator over the keys, backed by sortedIterator.
+    * @time complexity: O(t) to create, for t trees.
+    */
+    public Spliterator.OfInt sortedSpliterator() {
+        return Spliterators.spliterator(this.sortedIterator(), this.size,
+                Spliterator.ORDERED | Spliterator.SORTED | Spliterator.NONNULL);
+    }
+
+    /**
+    * public IntStream sortedKeys()
+    *
+    * Returns a lazy sequential stream of the keys in ascending order, e.g. sortedKeys().limit(100).
+    * @time complexity: O(t) to create, for t trees.
+    */
+    public IntStream sortedKeys() {
+        return StreamSupport.intStream(this.sortedSpliterator(), false);
+    }
+
+    /**
+    * public Spliterator<HeapNode> spliterator()
+    *
+    * Returns an unordered spliterator over every node of the heap, children included, which splits by runs of
+    * root trees and then by subtrees, so parallel streams spread a large heap over several threads.
+    * The heap must not be changed while it is being read.
+    * @time complexity: O(1) to create.
+    */
+    public Spliterator<HeapNode> spliterator() {
+        return new ForestSpliterator(this.treeListStart, this.isEmpty() ? 0 : this.treeCount, false, this.size);
+    }
+
+    /**
+    * public Stream<HeapNode> nodes()
+    *
+    * Returns a sequential stream over every node of the heap, in no particular order. Call parallel() on it
+    * for aggregations over large heaps, e.g. counting keys in a range or a histogram of ranks.
+    * @time complexity: O(1) to create.
+    */
+    public Stream<HeapNode> nodes() {
+        return StreamSupport.stream(this.spliterator(), false);
+    }
+
+    /**
+    * public IntStream keys()
+    *
+    * Returns a sequential stream over every key of the heap, in no particular order.
+    * @time complexity: O(1) to create.
+    */
+    public IntStream keys() {
+        return this.nodes().mapToInt(HeapNode::getKey);
+    }
+
+    /**
+    * public Snapshot snapshot()
+    *
+    * Returns a read-only view of the heap as it is now, which other threads may read while this heap keeps
+    * changing. The view shares every node with the heap. While it is open, a change saves the old key, rank,
+    * child and next of each node it is about to write, once per snapshot taken since, and the view reads those.
+    * So a change does the copying for the nodes it touches and no others, and never waits for a reader.
+    * Close snapshots that are no longer read, so changes stop saving nodes for them.
+    * @time complexity: O(1), and O(1) more for every node a change touches while a snapshot is open.
+    */
+    public Snapshot snapshot() {
+        Snapshot snapshot = new Snapshot(SNAPSHOT_EPOCHS.incrementAndGet(), this.treeListStart, this.treeCount,
+                this.size);
+        if (this.sharedSnapshots == null) {
+            this.sharedSnapshots = new ArrayList<>(2);
+            this.oldestSnapshotEpoch = snapshot.epoch;
+        }
+        this.sharedSnapshots.add(snapshot);
+        this.savingEpoch = snapshot.epoch;
+        return snapshot;
+    }
+
+    /**
+     * Drops the snapshots that are closed and no longer read. Called first by every change.
+     * @post: savingEpoch and oldestSnapshotEpoch belong to the snapshots left, or are 0
+     * @time complexity: O(s) for s snapshots taken and not yet dropped
+     */
+    private void beforeChange() {
+        if (this.sharedSnapshots == null) {
+            return;
+        }
+        this.sharedSnapshots.removeIf(Snapshot::isDone);
+        if (this.sharedSnapshots.isEmpty()) {
+            this.sharedSnapshots = null;
+            this.savingEpoch = 0;
+            this.oldestSnapshotEpoch = 0;
+            return;
+        }
+        long newest = 0;
+        long oldest = Long.MAX_VALUE;
+        for (Snapshot snapshot : this.sharedSnapshots) {
+            newest = Math.max(newest, snapshot.epoch);
+            oldest = Math.min(oldest, snapshot.epoch);
+        }
+        this.savingEpoch = newest;
+        this.oldestSnapshotEpoch = oldest;
+    }
+
+    /**
+     * Shares the snapshots of heap2, whose nodes this heap now changes. heap2 keeps them too, for the nodes
+     * left in its pool.
+     * @time complexity: O(s) for the s snapshots of heap2
+     */
+    private void adoptSnapshots(FibonacciHeap heap2) {
+        if (heap2.sharedSnapshots == null) {
+            return;
+        }
+        if (this.sharedSnapshots == null) {
+            this.sharedSnapshots = new ArrayList<>(heap2.sharedSnapshots.size());
+            this.oldestSnapshotEpoch = heap2.oldestSnapshotEpoch;
+        }
+        this.sharedSnapshots.addAll(heap2.sharedSnapshots);
+        this.savingEpoch = Math.max(this.savingEpoch, heap2.savingEpoch);
+        this.oldestSnapshotEpoch = Math.min(this.oldestSnapshotEpoch, heap2.oldestSnapshotEpoch);
+    }
+
+    /**
+     * Saves the key, rank, child and next of x for the open snapshots, unless they were saved since the newest
+     * one was taken. Called before any of them is written. Versions older than every open snapshot are dropped.
+     * @time complexity: O(1)
+     */
+    private void touch(HeapNode x) {
+        NodeVersion version = x.version;
+        if (this.savingEpoch == 0) {
+            if (version != null) {
+                // no snapshot reads it any more
+                x.version = null;
+            }
+            return;
+        }
+        if (version != null && version.epoch >= this.savingEpoch) {
+            return;
+        }
+        if (version != null && version.epoch < this.oldestSnapshotEpoch) {
+            version = null;
+        }
+        x.version = new NodeVersion(this.savingEpoch, x.key, x.rank, x.child, x.next, version);
+        // a reader that sees any of the writes after this also sees the version, see Snapshot.read
+        VarHandle.storeStoreFence();
+    }
+
+   /**
+    * public FibonacciHeap deepCopy()
+    *
+    * Returns an independent copy of the heap, with the same trees, ranks and marks, and the same consolidation
+    * policy and node pool capacity. Unlike the copy constructor, changing one heap never changes the other.
+    * @time complexity: O(n)
+    */
+    public FibonacciHeap deepCopy() {
+        return this.deepCopy(null);
+    }
+
+   /**
+    * public FibonacciHeap deepCopy(Map<HeapNode, HeapNode> mapping)
+    *
+    * Same as deepCopy(), and puts every node of this heap in mapping with its copy as the value, so handles held
+    * on this heap can be used on the copy. Pass an IdentityHashMap, or null for no mapping.
+    * @time complexity: O(n)
+    */
+    public FibonacciHeap deepCopy(Map<HeapNode, HeapNode> mapping) {
+        FibonacciHeap copy = this.copyTrees(mapping);
+        copy.setConsolidationPolicy(this.consolidationPolicy, this.consolidationFactor);
+        copy.setNodePoolCapacity(this.poolCapacity);
+        return copy;
+    }
+
+    /**
+     * Copies every tree of the heap with its ranks and marks, walking the forest with a stack instead of recursion.
+     * @param mapping gets every node with its copy, unless null
+     * @return a heap of new nodes with the same shape and keys
+     * @time complexity: O(n)
+     */
+    private FibonacciHeap copyTrees(Map<HeapNode, HeapNode> mapping) {
+        FibonacciHeap copy = new FibonacciHeap();
+        if (this.isEmpty()) {
+            return copy;
+        }
+        copy.size = this.size;
+        copy.treeCount = this.treeCount;
+        copy.markedCount = this.markedCount;
+        // pairs of an original node with children and its copy, whose children are still to copy
+        ArrayDeque<HeapNode> pending = new ArrayDeque<>();
+        copy.treeListStart = copySiblings(this.treeListStart, null, pending, mapping);
+        HeapNode original = this.treeListStart;
+        HeapNode copied = copy.treeListStart;
+        do {
+            if (original == this.min) {
+                copy.min = copied;
+            }
+            original = original.next;
+            copied = copied.next;
+        } while (original != this.treeListStart);
+        while (!pending.isEmpty()) {
+            HeapNode parentCopy = pending.pop();
+            HeapNode parent = pending.pop();
+            parentCopy.child = copySiblings(parent.child, parentCopy, pending, mapping);
+        }
+        return copy;
+    }
+
+    /**
+     * Copies the sibling list starting at start and pushes every node with children, then its copy, on pending.
+     * @return the copy of start
+     * @time complexity: O(number of siblings)
+     */
+    private static HeapNode copySiblings(HeapNode start, HeapNode parentCopy, ArrayDeque<HeapNode> pending,
+                                         Map<HeapNode, HeapNode> mapping) {
+        HeapNode first = null;
+        HeapNode last = null;
+        HeapNode node = start;
+        do {
+            HeapNode copy = new HeapNode(node.key, node.rank, node.mark, null, parentCopy, null, null);
+            if (mapping != null) {
+                mapping.put(node, copy);
+            }
+            if (first == null) {
+                first = copy;
+            } else {
+                last.next = copy;
+                copy.prev = last;
+            }
+            last = copy;
+            if (node.child != null) {
+                pending.push(node);
+                pending.push(copy);
+            }
+            node = node.next;
+        } while (node != start);
+        last.next = first;
+        first.prev = last;
+        return first;
+    }
+
+   /**
+    * public void writeTo(WritableByteChannel channel)
+    *
+    * Writes the heap to channel in a binary format that keeps its exact trees. The header is five big-endian
+    * ints: magic, version, flags, size and tree count. Then every node follows in preorder, tree by tree from
+    * the start of the tree list with children in list order. Each node is its key, as an int, and one byte
+    * holding the rank in the low 7 bits and the mark in the high bit. The rank of a node is its number of
+    * children, so the preorder alone gives the shape back.
+    * @time complexity: O(n)
+    */
+    public void writeTo(WritableByteChannel channel) throws IOException {
+        this.writeTo(channel, null);
+    }
+
+    /**
+     * Same as writeTo(channel), and if ids is not null, sets the ids flag (1) and writes the id of every node
+     * as a long after its rank byte.
+     * @time complexity: O(n)
+     */
+    public void writeTo(WritableByteChannel channel, ToLongFunction<HeapNode> ids) throws IOException {
+        int nodeBytes = FORMAT_NODE_BYTES + ((ids == null) ? 0 : FORMAT_ID_BYTES);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(FORMAT_WRITE_BUFFER_BYTES);
+        buffer.putInt(FORMAT_MAGIC)
+                .putInt(FORMAT_VERSION)
+                .putInt((ids == null) ? 0 : FORMAT_FLAG_IDS)
+                .putInt(this.size)
+                .putInt(this.isEmpty() ? 0 : this.treeCount);
+        if (!this.isEmpty()) {
+            ArrayDeque<HeapNode> stack = new ArrayDeque<>();
+            pushSiblingsInReverse(stack, this.treeListStart);
+            while (!stack.isEmpty()) {
+                HeapNode node = stack.pop();
+                if (node.rank >= FORMAT_MARK_BIT) {
+                    throw new IllegalStateException("rank " + node.rank + " does not fit the format");
+                }
+                if (buffer.remaining() < nodeBytes) {
+                    writeFully(channel, buffer);
+                }
+                buffer.putInt(node.key).put((byte) (node.rank | (node.mark ? FORMAT_MARK_BIT : 0)));
+                if (ids != null) {
+                    buffer.putLong(ids.applyAsLong(node));
+                }
+                if (node.child != null) {
+                    pushSiblingsInReverse(stack, node.child);
+                }
+            }
+        }
+        writeFully(channel, buffer);
+    }
+
+    /**
+     * Writes the heap to a new file at path, or over the file there, see writeTo(WritableByteChannel).
+     * @time complexity: O(n)
+     */
+    public void writeTo(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            this.writeTo(channel);
+        }
+    }
+
+   /**
+    * public static FibonacciHeap readFrom(FileChannel channel)
+    *
+    * Reads a heap written by writeTo from the current position of channel, with the same trees, ranks and marks,
+    * and moves the position past it. The nodes are read through windows of the file mapped into memory, so no
+    * key is inserted and nothing is consolidated.
+    * @throws IOException if the data is not a heap in this format, or is cut short
+    * @time complexity: O(n)
+    */
+    public static FibonacciHeap readFrom(FileChannel channel) throws IOException {
+        return readInto(new FibonacciHeap(), channel, FORMAT_READ_WINDOW_BYTES, null);
+    }
+
+    /**
+     * Same as readFrom(channel), and passes every node with its id to ids, or with 0 if the heap was written
+     * without ids, e.g. to index the nodes again.
+     * @time complexity: O(n)
+     */
+    public static FibonacciHeap readFrom(FileChannel channel, ObjLongConsumer<HeapNode> ids) throws IOException {
+        return readInto(new FibonacciHeap(), channel, FORMAT_READ_WINDOW_BYTES, ids);
+    }
+
+    /**
+     * readFrom with windows of windowBytes mapped at a time.
+     * @pre: windowBytes >= 13
+     * @time complexity: O(n)
+     */
+    static FibonacciHeap readFrom(FileChannel channel, long windowBytes) throws IOException {
+        return readInto(new FibonacciHeap(), channel, windowBytes, null);
+    }
+
+    /**
+     * Reads a heap written by writeTo into heap, whose createNode makes the nodes.
+     * @pre: heap is empty
+     * @return heap
+     * @time complexity: O(n)
+     */
+    private static <H extends FibonacciHeap> H readInto(H heap, FileChannel channel, long windowBytes,
+                                                        ObjLongConsumer<HeapNode> ids) throws IOException {
+        long start = channel.position();
+        ByteBuffer header = ByteBuffer.allocate(FORMAT_HEADER_BYTES);
+        while (header.hasRemaining()) {
+            if (channel.read(header, start + header.position()) < 0) {
+                throw new EOFException("heap header is cut short");
+            }
+        }
+        header.flip();
+        if (header.getInt() != FORMAT_MAGIC) {
+            throw new IOException("not a heap written by writeTo");
+        }
+        int version = header.getInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("unsupported heap format version " + version);
+        }
+        boolean hasIds = (header.getInt() & FORMAT_FLAG_IDS) != 0;
+        int nodeBytes = FORMAT_NODE_BYTES + (hasIds ? FORMAT_ID_BYTES : 0);
+        int size = header.getInt();
+        int treeCount = header.getInt();
+        long end = start + FORMAT_HEADER_BYTES + (long) size * nodeBytes;
+        if (size < 0 || treeCount < 0 || treeCount > size) {
+            throw new IOException("corrupt heap header");
+        }
+        if (end > channel.size()) {
+            throw new EOFException("heap of " + size + " nodes is cut short");
+        }
+
+        // the nodes still waiting for children, and how many each one still waits for
+        HeapNode[] parents = new HeapNode[16];
+        int[] missingChildren = new int[16];
+        int depth = 0;
+        int roots = 0;
+        long windowStart = start + FORMAT_HEADER_BYTES;
+        MappedByteBuffer window = null;
+        for (int i = 0; i < size; i++) {
+            if (window == null || window.remaining() < nodeBytes) {
+                // remap at the node boundary, so no node is split between windows
+                windowStart += (window == null) ? 0 : window.position();
+                window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart,
+                        Math.min(windowBytes, end - windowStart));
+            }
+            HeapNode node = heap.createNode(window.getInt());
+            int bits = window.get() & 0xFF;
+            node.rank = bits & ~FORMAT_MARK_BIT;
+            node.mark = (bits & FORMAT_MARK_BIT) != 0;
+            long id = hasIds ? window.getLong() : 0;
+            if (ids != null) {
+                ids.accept(node, id);
+            }
+            if (node.mark) {
+                heap.markedCount++;
+            }
+            if (depth == 0) {
+                heap.treeListStart = appendSibling(heap.treeListStart, node);
+                if (heap.min == null || node.key < heap.min.key) {
+                    heap.min = node;
+                }
+                roots++;
+            } else {
+                HeapNode parent = parents[depth - 1];
+                parent.child = appendSibling(parent.child, node);
+                node.parent = parent;
+                missingChildren[depth - 1]--;
+            }
+            if (node.rank > 0) {
+                if (depth == parents.length) {
+                    parents = Arrays.copyOf(parents, 2 * depth);
+                    missingChildren = Arrays.copyOf(missingChildren, 2 * depth);
+                }
+                parents[depth] = node;
+                missingChildren[depth] = node.rank;
+                depth++;
+            }
+            while (depth > 0 && missingChildren[depth - 1] == 0) {
+                depth--;
+            }
+        }
+        if (depth != 0 || roots != treeCount) {
+            throw new IOException("corrupt heap: the ranks do not match the nodes");
+        }
+        heap.size = size;
+        heap.treeCount = treeCount;
+        channel.position(end);
+        return heap;
+    }
+
+    /**
+     * Reads the heap in the file at path, see readFrom(FileChannel).
+     * @time complexity: O(n)
+     */
+    public static FibonacciHeap readFrom(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return readFrom(channel);
+        }
+    }
+
+    /**
+     * Pushes the sibling list starting at start on stack, so start is popped first and the others in list order.
+     * @time complexity: O(number of siblings)
+     */
+    private static void pushSiblingsInReverse(ArrayDeque<HeapNode> stack, HeapNode start) {
+        HeapNode node = start.prev;
+        while (node != start) {
+            stack.push(node);
+            node = node.prev;
+        }
+        stack.push(start);
+    }
+
+    /**
+     * Adds node at the end of the sibling list starting at first, or starts a new list if first is null.
+     * @return the start of the list
+     * @time complexity: O(1)
+     */
+    private static HeapNode appendSibling(HeapNode first, HeapNode node) {
+        if (first == null) {
+            node.next = node;
+            node.prev = node;
+            return node;
+        }
+        HeapNode last = first.prev;
+        last.next = node;
+        node.prev = last;
+        node.next = first;
+        first.prev = node;
+        return first;
+    }
+
+    /**
+     * Writes what buffer holds to channel and clears it.
+     * @time complexity: O(bytes in buffer)
+     */
+    private static void writeFully(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * helper class for kMin
+     */
+    private static class BinaryHeap {
+        HeapNode[] heap;
+        int size = 0;
+
+        /**
+         * builds a new helper binomial heap for kMin
+         * @param s initial capacity of the heap, which grows as needed
+         * @time complexity: O(1).
+         */
+        private BinaryHeap(int s){
+            heap = new HeapNode[s];
+        }
+
+        /**
+         * inserts to heap and heapifies down
+         * @param node the node to insert to the heap
+         * @time complexity: O(log(n)).
+         */
+        private void insert(HeapNode node){
+            if (node == null){
+                return;
+            }
+            ensureCapacity(size + 1);
+            size++;
+            set(size, node);
+            heapifyUp(size);
+        }
+
+        /**
+         * inserts node and all its next nodes, then heapify.
+         * @param node - candidate node to insert to heap
+         * @time O(n) where n is the final size of the heap
+         * @time complexity: O(n).
+         */
+        private void insertBunch(HeapNode node){
+            if (node == null){
+                return;
+            }
+            HeapNode bro = node;
+            do {
+                ensureCapacity(size + 1);
+                size++;
+                set(size, bro);
+                bro = bro.next;
+            } while (bro != node);
+            this.heapify();
+        }
+
+        /**
+         * grows the array, at least doubling it, so it can hold capacity nodes
+         * @time complexity: O(n) when growing, else O(1).
+         */
+        private void ensureCapacity(int capacity){
+            if (capacity > heap.length){
+                heap = Arrays.copyOf(heap, Math.max(capacity, 2 * heap.length));
+            }
+        }
+
+        /**
+         * heapify down every node from the middle of the heap and up
+         * @time complexity: O(n).
+         */
+        private void heapify(){
+            for (int i = size/2; i > 0; i--) {
+                heapifyDown(i);
+            }
+        }
+
+        /**
+         * heapify up a node after insertion.
+         * @time complexity: O(log(n)).
+         */
+        private void heapifyUp(int i){
+            HeapNode ithNode = get(i);
+            HeapNode parent = get(parentIndex(i));
+            while (ithNode != null && parent != null
+                    && i > 1 && ithNode.key < parent.key){
+                // switch parent and i
+                HeapNode mem = parent;
+                set(i, parent);
+                set(parentIndex(i), ithNode);
+                // iterate to the parent
+                i = parentIndex(i);
+                ithNode = get(i);
+                parent = get(parentIndex(i));
+            }
+        }
+
+        /**
+         * deletes the minimum value in the heap and finds a new one
+         * @time complexity: O(log(n)).
+         */
+        private void deleteMin(){
+            set(1,get(size));
+            size--;
+            heapifyDown(1);
+        }
+
+        /**
+         * heapify down a node a node after deletion.
+         * @param i < size || 0 < i
+         * @time complexity: O(log(n)).
+         */
+        private void heapifyDown(int i){
+            if (i < 1 || i > size){
+                return;
+            }
+            int l = leftIndex(i);
+            int r = rightIndex(i);
+            int smallest = i;
+            HeapNode left = get(l);
+            if (l <= size && left != null && left.key < get(smallest).key){
+                smallest = l; // left node is smaller
+            }
+            HeapNode right = get(r);
+            if (r <= size && right != null && right.key < get(smallest).key){
+                smallest = r; // right node is smaller
+            }
+            if (smallest > i){
+                // switch smaller node with i
+                HeapNode mem = get(i);
+                set(i, get(smallest));
+                set(smallest, mem);
+                // correct from smallest and down;
+                heapifyDown(smallest);
+            }
+        }
+
+        /**
+         * @time complexity: O(1).
+         */
+        private void set(int i, HeapNode node){
+            heap[i-1] = node;
+        }
+
+        /**
+         * @time complexity: O(1).
+         */
+        private HeapNode get(int i){
+            if(i < 1 || i > size){
+                return null;
+            }
+            return heap[i-1];
+        }
+
+        /**
+         * Returns the min of the binary heap.
+         * @time complexity: O(1).
+         */
+        private HeapNode getMin(){
+            return this.heap[0];
+        }
+
+        /**
+         * @time complexity: O(1).
+         */
+        private static int parentIndex(int i){
+            return i/2; // int division => floor
+        }
+
+        /**
+         * @time complexity: O(1).
+         */
+        private static int leftIndex(int i){
+            return 2*i;
+        }
+
+        /**
+         * @time complexity: O(1).
+         */
+        private static int rightIndex(int i){
+            return 2*i+1;
+        }
+    }
+    
+   /**
+    * public class HeapNode
+    * 
+    * If you wish to implement classes other than FibonacciHeap
+    * (for example HeapNode), do it in this file, not in another file. 
+    *  
+    */
+    public static class HeapNode {
+
+        // fields of HeapNode.
+    	public int key;
+        public int rank;
+        public boolean mark;
+        public HeapNode child;
+        public HeapNode parent;
+        public HeapNode next;
+        public HeapNode prev;
+        // changes every time the node is removed from its heap
+        public int generation;
+        // the fields of the node as open snapshots saw them, newest first, or null; see touch
+        private volatile NodeVersion version;
+
+       /**
+        * Construct a node from data
+        * @param key
+        * @param rank
+        * @param mark
+        * @param child
+        * @param parent
+        * @param next
+        * @param prev
+        * @time complexity: O(1).
+        */
+    	public HeapNode(int key,
+                        int rank,
+                        boolean mark,
+                        HeapNode child,
+                        HeapNode parent,
+                        HeapNode next,
+                        HeapNode prev) {
+            this.key = key;
+            this.rank = rank;
+            this.mark = mark;
+            this.child = child;
+            this.parent = parent;
+            this.next = next;
+            this.prev = prev;
+    	}
+
+       /**
+        * Constructs a lonely node with key
+        * @param key to be stored in the node
+        * @time complexity: O(1).
+        */
+        public HeapNode(int key){
+            this(key, 0, false, null, null, null, null);
+        }
+
+       /**
+        * Constructs a lonely node with key = 0
+        * @time complexity: O(1).
+        */
+       public HeapNode(){
+            this(0);
+        }
+
+       /**
+        * Returns the key of a this.
+        * @time complexity: O(1).
+        */
+    	public int getKey() {
+            return this.key;
+    	}
+
+       /**
+        * Returns the rank of a this.
+        * @time complexity: O(1).
+        */
+        public int getRank() {
+            return this.rank;
+        }
+
+       /**
+        * Returns the generation of this, which changes every time this is removed from its heap.
+        * A handle is stale if the generation it was stored with differs.
+        * @time complexity: O(1).
+        */
+        public int getGeneration() {
+            return this.generation;
+        }
+
+       /**
+        * Returns true iff this is marked.
+        * @time complexity: O(1).
+        */
+        public boolean isMarked() {
+            return this.mark;
+        }
+
+       /**
+        * Mark this.
+        * @time complexity: O(1).
+        */
+        public void mark(){
+            this.mark = true;
+        }
+
+       /**
+        * Unmark this.
+        * @time complexity: O(1).
+        */
+        public void unMark(){
+            this.mark = false;
+        }
+
+       /**
+        * Returns the child of this.
+        * @time complexity: O(1).
+        */
+        public HeapNode getChild() {
+            return this.child;
+        }
+
+       /**
+        * Returns the parent of this.
+        * @time complexity: O(1).
+        */
+        public HeapNode getParent() {
+            return this.parent;
+        }
+
+       /**
+        * Returns the next node of this.
+        * @time complexity: O(1).
+        */
+        public HeapNode getNext() {
+            return this.next;
+        }
+
+       /**
+        * Returns the previous node of this.
+        * @time complexity: O(1).
+        */
+        public  HeapNode getPrev() {
+            return this.prev;
+        }
+
+         @Override
+         public String toString(){
+             return "(%d)".formatted(this.key);
+         }
+    }
+
+    /**
+     * An iterable HeapNode wrapper class for iteration purposes
+     */
+    protected static class IterableNode implements Iterable<HeapNode>{
+
+        HeapNode start;
+
+        /**
+         * construct from existing node
+         * @param node to start iterating from
+         * @time complexity: O(1).
+         */
+        public IterableNode(HeapNode node){
+            start = node;
+        }
+
+        @Override
+        public Iterator<HeapNode> iterator(){
+            return new HeapNodeIteratorAsLinkedList(start);
+        }
+    }
+
+    /**
+     * Iterates over HeapNodes at the same rank
+     * @- goes to the next until it wraps back around
+     */
+    private static class HeapNodeIteratorAsLinkedList implements Iterator<HeapNode>{
+
+        HeapNode currentNode;
+        HeapNode firstNode;
+        boolean isFirst = true;
+        public HeapNodeIteratorAsLinkedList(HeapNode start){
+            this.currentNode = start;
+            this.firstNode = start;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return isFirst || (currentNode != null && currentNode.next != firstNode);
+        }
+
+        @Override
+        public HeapNode next() {
+            if (isFirst){
+                isFirst = false;
+                return currentNode;
+            }
+            currentNode = currentNode.next;
+            return currentNode;
+        }
+    }
+
+    /**
+     * Iterates over the keys of a heap in ascending order without changing it.
+     * @- keeps a frontier of the nodes whose parents were already returned, as kMin does
+     */
+    private static class SortedKeyIterator implements PrimitiveIterator.OfInt {
+        private final BinaryHeap frontier;
+
+        /**
+         * @time complexity: O(t) for t trees.
+         */
+        private SortedKeyIterator(FibonacciHeap heap) {
+            this.frontier = new BinaryHeap(Math.max(1, heap.treeCount));
+            if (!heap.isEmpty()) {
+                this.frontier.insertBunch(heap.treeListStart);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.frontier.size > 0;
+        }
+
+        /**
+         * @time complexity: O(log(t) + deg(H)*log(n)).
+         */
+        @Override
+        public int nextInt() {
+            if (this.frontier.size == 0) {
+                throw new NoSuchElementException();
+            }
+            HeapNode node = this.frontier.getMin();
+            this.frontier.deleteMin();
+            HeapNode child = node.child;
+            if (child != null) {
+                do {
+                    this.frontier.insert(child);
+                    child = child.next;
+                } while (child != node.child);
+            }
+            return node.key;
+        }
+    }
+
+    /**
+     * When the heap consolidates its root list after the minimum is deleted.
+     */
+    public enum ConsolidationPolicy {
+        /**
+         * Always, so the heap is a set of binomial-like trees with distinct ranks after every deleteMin.
+         */
+        EAGER,
+        /**
+         * Only when more than c*log2(n) roots are left. A shorter root list is just scanned for the new
+         * minimum, which skips the linking work and leaves the trees for a later, longer list to consolidate.
+         */
+        THRESHOLD,
+        /**
+         * A little at a time. New roots wait as pending roots at the start of the tree list, and every operation
+         * owes c consolidation steps, plus two for every root it adds, each step linking at most two trees.
+         * A call pays at most b = c + 2*(1.4405*log2(n) + 2) steps of what is owed, and then settles pending roots
+         * until at most b are left. deleteMin and increaseKey scan those and one settled root per rank for the
+         * new minimum, so they never walk the whole root list. A call that adds a roots, e.g. a meld or insertAll,
+         * settles them itself in O(a*log(n)) worst case and O(a) amortized links; with k unordered roots no later
+         * call could find the second smallest of them in less. insert, decreaseKey and meld are no longer O(1).
+         */
+        INCREMENTAL
+    }
+
+    /**
+     * Visits every node of a forest, in no particular order.
+     * @- covers a run of length siblings starting at start, each with its whole subtree.
+     * @- trySplit hands off half of the run, or the children of a lone node, which then covers only itself.
+     * @- once advanced it walks its part with a stack and does not split any more.
+     */
+    private static class ForestSpliterator implements Spliterator<HeapNode> {
+        private HeapNode start;
+        private int length;
+        // true if start alone is left, without its subtree
+        private boolean withoutChildren;
+        private long estimate;
+        private ArrayDeque<HeapNode> stack;
+
+        /**
+         * @time complexity: O(1).
+         */
+        private ForestSpliterator(HeapNode start, int length, boolean withoutChildren, long estimate) {
+            this.start = start;
+            this.length = length;
+            this.withoutChildren = withoutChildren;
+            this.estimate = estimate;
+        }
+
+        /**
+         * @time complexity: O(length) for a split of the run, else O(1).
+         */
+        @Override
+        public Spliterator<HeapNode> trySplit() {
+            if (this.stack != null || this.length == 0) {
+                return null;
+            }
+            if (this.length == 1) {
+                if (this.withoutChildren || this.start.child == null) {
+                    return null;
+                }
+                ForestSpliterator children = new ForestSpliterator(
+                        this.start.child, this.start.rank, false, this.estimate - 1);
+                this.withoutChildren = true;
+                this.estimate = 1;
+                return children;
+            }
+            int half = this.length / 2;
+            ForestSpliterator prefix = new ForestSpliterator(this.start, half, false, this.estimate / 2);
+            for (int i = 0; i < half; i++) {
+                this.start = this.start.next;
+            }
+            this.length -= half;
+            this.estimate -= prefix.estimate;
+            return prefix;
+        }
+
+        /**
+         * @time complexity: O(deg(H)) amortized.
+         */
+        @Override
+        public boolean tryAdvance(Consumer<? super HeapNode> action) {
+            if (this.stack == null) {
+                this.stack = new ArrayDeque<>();
+                HeapNode node = this.start;
+                for (int i = 0; i < this.length; i++) {
+                    this.stack.push(node);
+                    node = node.next;
+                }
+            }
+            HeapNode node = this.stack.poll();
+            if (node == null) {
+                return false;
+            }
+            HeapNode child = node.child;
+            if (child != null && !this.withoutChildren) {
+                do {
+                    this.stack.push(child);
+                    child = child.next;
+                } while (child != node.child);
+            }
+            // only the first node of a lone run goes without its children
+            this.withoutChildren = false;
+            this.estimate = Math.max(0, this.estimate - 1);
+            action.accept(node);
+            return true;
+        }
+
+        @Override
+        public long estimateSize() {
+            return this.estimate;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.DISTINCT | Spliterator.NONNULL;
+        }
+    }
+
+    /**
+     * ArrayFibonacciHeap
+     *
+     * A Fibonacci heap over integers that keeps its nodes in parallel primitive arrays instead of HeapNode objects.
+     * A node is referred to by an int handle, and NIL stands for a null pointer.
+     * Handles of deleted nodes are recycled by later inserts.
+     * A node costs 5 ints, a byte and a bit (about 21 bytes), and no object header.
+     */
+    public static class ArrayFibonacciHeap {
+        public static final int NIL = -1;
+        // rank <= log_phi(size) < 46 for any int size
+        private static final int MAX_RANK = 64;
+        private static final int DEFAULT_CAPACITY = 16;
+
+        // node fields, indexed by handle.
+        private int[] keys;
+        private byte[] ranks;
+        private long[] marks;
+        private int[] children;
+        private int[] parents;
+        private int[] nexts;
+        private int[] prevs;
+
+        // fields of the heap.
+        private int min = NIL;
+        private int treeListStart = NIL;
+        private int treeCount;
+        private int size;
+        private int markedCount;
+        private int freeList = NIL; // deleted handles, chained through nexts
+        private int allocated; // handles handed out so far
+        private final int[] buckets = new int[MAX_RANK];
+
+        /**
+         * Creates an empty heap with room for capacity nodes before growing.
+         * @time complexity: O(capacity)
+         */
+        public ArrayFibonacciHeap(int capacity) {
+            capacity = Math.max(capacity, 1);
+            this.keys = new int[capacity];
+            this.ranks = new byte[capacity];
+            this.marks = new long[(capacity + 63) >>> 6];
+            this.children = new int[capacity];
+            this.parents = new int[capacity];
+            this.nexts = new int[capacity];
+            this.prevs = new int[capacity];
+            Arrays.fill(this.buckets, NIL);
+        }
+
+        /**
+         * Default constructor, creates an empty heap.
+         * @time complexity: O(1)
+         */
+        public ArrayFibonacciHeap() {
+            this(DEFAULT_CAPACITY);
+        }
+
+        /**
+         * Copies the trees of a FibonacciHeap, with their ranks and marks, into a new array heap sized to fit.
+         * Nodes get handles 0 to n-1 in breadth-first order: the roots first, then the children of every
+         * copied node, so the originals indexed by handle replace the stack of a depth-first walk.
+         * @param handles gets every node of source with its handle in the copy, unless null
+         * @time complexity: O(n)
+         */
+        public static ArrayFibonacciHeap copyOf(FibonacciHeap source, Map<HeapNode, Integer> handles) {
+            ArrayFibonacciHeap copy = new ArrayFibonacciHeap(source.size);
+            if (source.isEmpty()) {
+                return copy;
+            }
+            HeapNode[] originals = new HeapNode[source.size];
+            copy.treeListStart = copy.copySiblings(source.treeListStart, NIL, originals, handles);
+            for (int node = 0; node < copy.allocated; node++) {
+                HeapNode original = originals[node];
+                if (original == source.min) {
+                    copy.min = node;
+                }
+                if (original.child != null) {
+                    copy.children[node] = copy.copySiblings(original.child, node, originals, handles);
+                }
+            }
+            copy.treeCount = source.treeCount;
+            copy.size = source.size;
+            copy.markedCount = source.markedCount;
+            return copy;
+        }
+
+        /**
+         * Allocates a node for every sibling from start on, linked in the same order, and records the originals.
+         * @return the handle of the copy of start
+         * @time complexity: O(number of siblings)
+         */
+        private int copySiblings(HeapNode start, int parent, HeapNode[] originals, Map<HeapNode, Integer> handles) {
+            int first = NIL;
+            HeapNode original = start;
+            do {
+                int node = allocate(original.key);
+                originals[node] = original;
+                this.ranks[node] = (byte) original.rank;
+                setMark(node, original.mark);
+                this.parents[node] = parent;
+                if (first == NIL) {
+                    first = node;
+                } else {
+                    // insert before first, that is at the end of the ring
+                    int last = this.prevs[first];
+                    this.nexts[last] = node;
+                    this.prevs[node] = last;
+                    this.nexts[node] = first;
+                    this.prevs[first] = node;
+                }
+                if (handles != null) {
+                    handles.put(original, node);
+                }
+                original = original.next;
+            } while (original != start);
+            return first;
+        }
+
+        /**
+         * Returns the handle of the node whose key is minimal, or NIL if the heap is empty.
+         * @time complexity: O(1)
+         */
+        public int findMin() {
+            return this.min;
+        }
+
+        /**
+         * Returns the key of the node with the given handle.
+         * @time complexity: O(1)
+         */
+        public int getKey(int node) {
+            return this.keys[node];
+        }
+
+        /**
+         * Returns the rank of the node with the given handle.
+         * @time complexity: O(1)
+         */
+        public int getRank(int node) {
+            return this.ranks[node];
+        }
+
+        /**
+         * Returns the handle of the first child of node, or NIL.
+         * @time complexity: O(1)
+         */
+        public int getChild(int node) {
+            return this.children[node];
+        }
+
+        /**
+         * Returns the handle of the parent of node, or NIL for a root.
+         * @time complexity: O(1)
+         */
+        public int getParent(int node) {
+            return this.parents[node];
+        }
+
+        /**
+         * Returns true iff the node with the given handle is marked.
+         * @time complexity: O(1)
+         */
+        public boolean isMarked(int node) {
+            return (this.marks[node >>> 6] & (1L << node)) != 0;
+        }
+
+        /**
+         * Returns the number of trees in the heap.
+         * @time complexity: O(1)
+         */
+        public int getTreeCount() {
+            return this.treeCount;
+        }
+
+        /**
+         * Returns the sum of the marked nodes in the heap.
+         * @time complexity: O(1)
+         */
+        public int getMarkedCount() {
+            return this.markedCount;
+        }
+
+        /**
+         * Returns the number of elements in the heap.
+         * @time complexity: O(1)
+         */
+        public int size() {
+            return this.size;
+        }
+
+        /**
+         * Returns true if and only if the heap is empty.
+         * @time complexity: O(1)
+         */
+        public boolean isEmpty() {
+            return this.size < 1;
+        }
+
+        /**
+         * Creates a node which contains the given key, and inserts it into the heap.
+         * @return the handle of the new node
+         * @time complexity: O(1) amortized (the arrays may grow)
+         */
+        public int insert(int key) {
+            int node = allocate(key);
+            addToTreeList(node);
+            this.treeListStart = node;
+            if (this.min == NIL || key < this.keys[this.min]) {
+                this.min = node;
+            }
+            this.size++;
+            this.treeCount++;
+            return node;
+        }
+
+        /**
+         * Deletes the node containing the minimum key.
+         * @post: update minimum pointer
+         * @post: heap is consolidated to a binomial heap
+         * @time complexity: O(log(n)) amortized
+         */
+        public void deleteMin() {
+            if (this.isEmpty()) {
+                return;
+            }
+            int oldMin = this.min;
+            removeFromTreeList(oldMin);
+            addChildrenToTreeList(oldMin);
+            release(oldMin);
+            this.size--;
+            consolidate();
+        }
+
+        /**
+         * Deletes the node x from the heap.
+         * It is assumed that x indeed belongs to the heap.
+         * @post: min is unchanged unless x was the minimum, no consolidation happens otherwise
+         * @time complexity: O(log(n)) amortized
+         */
+        public void delete(int x) {
+            if (x == this.min) {
+                this.deleteMin();
+                return;
+            }
+            int parent = this.parents[x];
+            if (parent != NIL) {
+                cut(x);
+                cascadingCut(parent);
+            }
+            removeFromTreeList(x);
+            addChildrenToTreeList(x);
+            release(x);
+            this.size--;
+        }
+
+        /**
+         * Decreases the key of the node x by a non-negative value delta, with cascading cuts if needed.
+         * @time complexity: O(1) amortized
+         */
+        public void decreaseKey(int x, int delta) {
+            if (this.isEmpty() || x == NIL || delta < 0) {
+                return;
+            }
+            this.keys[x] -= delta;
+            int parent = this.parents[x];
+            if (parent != NIL && this.keys[x] <= this.keys[parent]) {
+                cut(x);
+                cascadingCut(parent);
+            }
+            if (this.keys[x] <= this.keys[this.min]) {
+                this.min = x;
+            }
+        }
+
+        /**
+         * Melds heap2 into the current heap by copying its nodes into this heap's arrays.
+         * @post: heap2 is empty
+         * @return a table from heap2's handles to the new handles in this heap (NIL for free handles)
+         * @time complexity: O(heap2's capacity)
+         */
+        public int[] meld(ArrayFibonacciHeap heap2) {
+            int[] moved = new int[heap2.allocated];
+            Arrays.fill(moved, NIL);
+            for (int node = 0; node < heap2.allocated; node++) {
+                if (heap2.prevs[node] != NIL) {
+                    moved[node] = allocate(heap2.keys[node]);
+                }
+            }
+            for (int node = 0; node < heap2.allocated; node++) {
+                int copy = moved[node];
+                if (copy == NIL) {
+                    continue;
+                }
+                this.ranks[copy] = heap2.ranks[node];
+                if (heap2.isMarked(node)) {
+                    setMark(copy, true);
+                }
+                this.children[copy] = heap2.children[node] == NIL ? NIL : moved[heap2.children[node]];
+                this.parents[copy] = heap2.parents[node] == NIL ? NIL : moved[heap2.parents[node]];
+                this.nexts[copy] = moved[heap2.nexts[node]];
+                this.prevs[copy] = moved[heap2.prevs[node]];
+            }
+            if (!heap2.isEmpty()) {
+                int otherMin = moved[heap2.min];
+                addToTreeList(moved[heap2.treeListStart]);
+                if (this.min == NIL || this.keys[otherMin] < this.keys[this.min]) {
+                    this.min = otherMin;
+                }
+                this.treeCount += heap2.treeCount;
+                this.size += heap2.size;
+                this.markedCount += heap2.markedCount;
+            }
+            heap2.clear();
+            return moved;
+        }
+
+        /**
+         * Return an array of counters. The i-th entry contains the number of trees of order i in the heap.
+         * @time complexity: O(#trees)
+         */
+        public int[] countersRep() {
+            if (this.isEmpty()) {
+                return new int[]{};
+            }
+            int[] arr = new int[MAX_RANK];
+            int maxRank = 0;
+            int tree = this.treeListStart;
+            do {
+                arr[this.ranks[tree]]++;
+                maxRank = Math.max(maxRank, this.ranks[tree]);
+                tree = this.nexts[tree];
+            } while (tree != this.treeListStart);
+            return Arrays.copyOf(arr, maxRank + 1);
+        }
+
+        /**
+         * Returns the k smallest keys in the heap, in ascending order, without changing the heap.
+         * Unlike FibonacciHeap.kMin the heap may hold any number of trees.
+         * @time complexity: O(#trees + k*deg(H)*log(k*deg(H)))
+         */
+        public static int[] kMin(ArrayFibonacciHeap H, int k) {
+            k = Math.min(k, H.size);
+            if (k <= 0) {
+                return new int[]{};
+            }
+            int[] minimalKeys = new int[k];
+            int[] frontier = new int[(int) Math.min(H.treeCount + (long) k * MAX_RANK, H.size)];
+            int frontierSize = 0;
+            int tree = H.treeListStart;
+            do {
+                frontierSize = H.frontierPush(frontier, frontierSize, tree);
+                tree = H.nexts[tree];
+            } while (tree != H.treeListStart);
+            for (int i = 0; i < k; i++) {
+                int node = frontier[0];
+                minimalKeys[i] = H.keys[node];
+                frontier[0] = frontier[--frontierSize];
+                H.frontierSiftDown(frontier, frontierSize, 0);
+                int child = H.children[node];
+                if (child != NIL) {
+                    int bro = child;
+                    do {
+                        frontierSize = H.frontierPush(frontier, frontierSize, bro);
+                        bro = H.nexts[bro];
+                    } while (bro != child);
+                }
+            }
+            return minimalKeys;
+        }
+
+        /**
+         * Pushes a handle onto a binary min-heap of handles ordered by key.
+         * @return the new size of the frontier
+         * @time complexity: O(log(n))
+         */
+        private int frontierPush(int[] frontier, int frontierSize, int node) {
+            int i = frontierSize;
+            while (i > 0 && this.keys[frontier[(i - 1) / 2]] > this.keys[node]) {
+                frontier[i] = frontier[(i - 1) / 2];
+                i = (i - 1) / 2;
+            }
+            frontier[i] = node;
+            return frontierSize + 1;
+        }
+
+        /**
+         * Restores the order of a binary min-heap of handles after its root was replaced.
+         * @time complexity: O(log(n))
+         */
+        private void frontierSiftDown(int[] frontier, int frontierSize, int i) {
+            int node = frontier[i];
+            while (2 * i + 1 < frontierSize) {
+                int smallest = 2 * i + 1;
+                if (smallest + 1 < frontierSize && this.keys[frontier[smallest + 1]] < this.keys[frontier[smallest]]) {
+                    smallest++;
+                }
+                if (this.keys[frontier[smallest]] >= this.keys[node]) {
+                    break;
+                }
+                frontier[i] = frontier[smallest];
+                i = smallest;
+            }
+            frontier[i] = node;
+        }
+
+        /**
+         * Consolidate trees in the heap until we have a binomial heap, and find the new minimum on the way.
+         * @post: updates tree count, minimum and treeListStart pointer
+         * @time complexity: O(#trees + log(n))
+         */
+        private void consolidate() {
+            this.min = NIL;
+            if (this.treeListStart == NIL) {
+                return;
+            }
+            int maxRank = 0;
+            int tree = this.treeListStart;
+            for (int i = this.treeCount; i > 0; i--) {
+                int next = this.nexts[tree];
+                int rank = this.ranks[tree];
+                while (this.buckets[rank] != NIL) {
+                    // bucket is filled, connect nodes
+                    tree = link(this.buckets[rank], tree);
+                    this.buckets[rank] = NIL;
+                    rank++;
+                }
+                this.buckets[rank] = tree;
+                maxRank = Math.max(maxRank, rank);
+                tree = next;
+            }
+
+            // order new list
+            this.treeListStart = NIL;
+            this.treeCount = 0;
+            for (int rank = 0; rank <= maxRank; rank++) {
+                int node = this.buckets[rank];
+                if (node == NIL) {
+                    continue;
+                }
+                this.buckets[rank] = NIL;
+                this.nexts[node] = node;
+                this.prevs[node] = node;
+                addToTreeList(node);
+                this.treeCount++;
+                if (this.min == NIL || this.keys[node] < this.keys[this.min]) {
+                    this.min = node;
+                }
+            }
+        }
+
+        /**
+         * Hangs the root with the larger key as the first child of the other root.
+         * @return the root of the connected two trees (smaller key)
+         * @time complexity: O(1)
+         */
+        private int link(int tree1, int tree2) {
+            int smaller = this.keys[tree1] < this.keys[tree2] ? tree1 : tree2;
+            int larger = smaller == tree1 ? tree2 : tree1;
+            int childStart = this.children[smaller];
+            if (childStart == NIL) {
+                this.nexts[larger] = larger;
+                this.prevs[larger] = larger;
+            } else {
+                int childEnd = this.prevs[childStart];
+                this.nexts[larger] = childStart;
+                this.prevs[childStart] = larger;
+                this.nexts[childEnd] = larger;
+                this.prevs[larger] = childEnd;
+            }
+            this.children[smaller] = larger;
+            this.parents[larger] = smaller;
+            this.ranks[smaller]++;
+            return smaller;
+        }
+
+        /**
+         * Cuts x from its parent and moves it to the start of the root list, unmarked.
+         * @time complexity: O(1)
+         */
+        private void cut(int x) {
+            int parent = this.parents[x];
+            this.ranks[parent]--;
+            if (this.children[parent] == x) {
+                this.children[parent] = this.nexts[x] == x ? NIL : this.nexts[x];
+            }
+            this.nexts[this.prevs[x]] = this.nexts[x];
+            this.prevs[this.nexts[x]] = this.prevs[x];
+            this.parents[x] = NIL;
+            this.nexts[x] = x;
+            this.prevs[x] = x;
+            addToTreeList(x);
+            this.treeListStart = x;
+            this.treeCount++;
+            if (isMarked(x)) {
+                setMark(x, false);
+                this.markedCount--;
+            }
+        }
+
+        /**
+         * Walks up from node, cutting marked ancestors until an unmarked one, which gets marked.
+         * @time complexity: O(1) amortized
+         */
+        private void cascadingCut(int node) {
+            while (this.parents[node] != NIL) {
+                if (!isMarked(node)) {
+                    setMark(node, true);
+                    this.markedCount++;
+                    return;
+                }
+                int parent = this.parents[node];
+                cut(node);
+                node = parent;
+            }
+        }
+
+        /**
+         * Unlinks a root from the root list.
+         * @time complexity: O(1)
+         */
+        private void removeFromTreeList(int root) {
+            if (this.nexts[root] == root) {
+                this.treeListStart = NIL;
+            } else {
+                this.nexts[this.prevs[root]] = this.nexts[root];
+                this.prevs[this.nexts[root]] = this.prevs[root];
+                if (this.treeListStart == root) {
+                    this.treeListStart = this.nexts[root];
+                }
+            }
+            this.treeCount--;
+        }
+
+        /**
+         * Moves the children of node to the end of the root list, unmarked.
+         * @time complexity: O(rank(node))
+         */
+        private void addChildrenToTreeList(int node) {
+            int child = this.children[node];
+            if (child == NIL) {
+                return;
+            }
+            int bro = child;
+            do {
+                this.parents[bro] = NIL;
+                if (isMarked(bro)) {
+                    setMark(bro, false);
+                    this.markedCount--;
+                }
+                this.treeCount++;
+                bro = this.nexts[bro];
+            } while (bro != child);
+            addToTreeList(child);
+            this.children[node] = NIL;
+            this.ranks[node] = 0;
+        }
+
+        /**
+         * Adds a circular list starting at startListToInsert to the end of the root list.
+         * @time complexity: O(1)
+         */
+        private void addToTreeList(int startListToInsert) {
+            if (this.treeListStart == NIL) {
+                this.treeListStart = startListToInsert;
+                return;
+            }
+            int lastOrigin = this.prevs[this.treeListStart];
+            int lastListToInsert = this.prevs[startListToInsert];
+            this.nexts[lastOrigin] = startListToInsert;
+            this.prevs[startListToInsert] = lastOrigin;
+            this.nexts[lastListToInsert] = this.treeListStart;
+            this.prevs[this.treeListStart] = lastListToInsert;
+        }
+
+        /**
+         * Takes a handle from the free list, or a fresh one, and makes it a lonely node with key.
+         * @time complexity: O(1) amortized
+         */
+        private int allocate(int key) {
+            int node;
+            if (this.freeList != NIL) {
+                node = this.freeList;
+                this.freeList = this.nexts[node];
+            } else {
+                if (this.allocated == this.keys.length) {
+                    grow();
+                }
+                node = this.allocated++;
+            }
+            this.keys[node] = key;
+            this.ranks[node] = 0;
+            setMark(node, false);
+            this.children[node] = NIL;
+            this.parents[node] = NIL;
+            this.nexts[node] = node;
+            this.prevs[node] = node;
+            return node;
+        }
+
+        /**
+         * Puts a deleted node's handle on the free list.
+         * @post: prevs[node] == NIL marks the handle as free
+         * @time complexity: O(1)
+         */
+        private void release(int node) {
+            if (isMarked(node)) {
+                setMark(node, false);
+                this.markedCount--;
+            }
+            this.children[node] = NIL;
+            this.parents[node] = NIL;
+            this.prevs[node] = NIL;
+            this.nexts[node] = this.freeList;
+            this.freeList = node;
+        }
+
+        /**
+         * Doubles the capacity of the node arrays.
+         * @time complexity: O(n)
+         */
+        private void grow() {
+            int capacity = this.keys.length * 2;
+            this.keys = Arrays.copyOf(this.keys, capacity);
+            this.ranks = Arrays.copyOf(this.ranks, capacity);
+            this.marks = Arrays.copyOf(this.marks, (capacity + 63) >>> 6);
+            this.children = Arrays.copyOf(this.children, capacity);
+            this.parents = Arrays.copyOf(this.parents, capacity);
+            this.nexts = Arrays.copyOf(this.nexts, capacity);
+            this.prevs = Arrays.copyOf(this.prevs, capacity);
+        }
+
+        /**
+         * Empties the heap, keeping its arrays.
+         * @time complexity: O(1)
+         */
+        private void clear() {
+            this.min = NIL;
+            this.treeListStart = NIL;
+            this.treeCount = 0;
+            this.size = 0;
+            this.markedCount = 0;
+            this.freeList = NIL;
+            this.allocated = 0;
+        }
+
+        /**
+         * @time complexity: O(1)
+         */
+        private void setMark(int node, boolean mark) {
+            if (mark) {
+                this.marks[node >>> 6] |= 1L << node;
+            } else {
+                this.marks[node >>> 6] &= ~(1L << node);
+            }
+        }
+    }
+
+    /**
+     * OffHeapFibonacciHeap
+     *
+     * A Fibonacci heap over integers whose node records live outside the Java heap, in direct ByteBuffers.
+     * A node is referred to by a long handle, and NIL stands for a null pointer.
+     * Records of deleted nodes are kept on a free list and reused by later inserts.
+     * The garbage collector never scans the nodes; close() drops the buffers and makes the heap unusable.
+     * The JDK has no supported way to free a direct buffer, so their memory is given back once the garbage
+     * collector finds them unreachable, which close() only makes possible sooner.
+     */
+    public static class OffHeapFibonacciHeap implements AutoCloseable {
+        public static final long NIL = -1;
+        private static final int MAX_RANK = 64;
+
+        // record layout
+        private static final int KEY = 0;
+        private static final int RANK = 4;
+        private static final int MARK = 5;
+        private static final int CHILD = 8;
+        private static final int PARENT = 16;
+        private static final int NEXT = 24;
+        private static final int PREV = 32;
+        private static final int RECORD_SIZE = 40;
+
+        private static final int CHUNK_SHIFT = 20; // records per buffer
+        private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+
+        private ByteBuffer[] chunks = new ByteBuffer[4];
+        private int chunkCount;
+        private boolean closed;
+
+        // fields of the heap.
+        private long min = NIL;
+        private long treeListStart = NIL;
+        private long treeCount;
+        private long size;
+        private long markedCount;
+        private long freeList = NIL; // deleted records, chained through NEXT
+        private long allocated; // records handed out so far
+        private final long[] buckets = new long[MAX_RANK];
+
+        /**
+         * Default constructor, creates an empty heap. Buffers are allocated on demand.
+         * @time complexity: O(1)
+         */
+        public OffHeapFibonacciHeap() {
+            Arrays.fill(this.buckets, NIL);
+        }
+
+        /**
+         * Returns the handle of the node whose key is minimal, or NIL if the heap is empty.
+         * @time complexity: O(1)
+         */
+        public long findMin() {
+            ensureOpen();
+            return this.min;
+        }
+
+        /**
+         * Returns the key of the node with the given handle.
+         * @time complexity: O(1)
+         */
+        public int getKey(long node) {
+            ensureOpen();
+            return key(node);
+        }
+
+        /**
+         * Returns the number of trees in the heap.
+         * @time complexity: O(1)
+         */
+        public long getTreeCount() {
+            ensureOpen();
+            return this.treeCount;
+        }
+
+        /**
+         * Returns the sum of the marked nodes in the heap.
+         * @time complexity: O(1)
+         */
+        public long getMarkedCount() {
+            ensureOpen();
+            return this.markedCount;
+        }
+
+        /**
+         * Returns the number of elements in the heap.
+         * @time complexity: O(1)
+         */
+        public long size() {
+            ensureOpen();
+            return this.size;
+        }
+
+        /**
+         * Returns true if and only if the heap is empty.
+         * @time complexity: O(1)
+         */
+        public boolean isEmpty() {
+            ensureOpen();
+            return this.size < 1;
+        }
+
+        /**
+         * Creates a node which contains the given key, and inserts it into the heap.
+         * @return the handle of the new node
+         * @time complexity: O(1)
+         */
+        public long insert(int key) {
+            ensureOpen();
+            long node = allocate(key);
+            addToTreeList(node);
+            this.treeListStart = node;
+            if (this.min == NIL || key < key(this.min)) {
+                this.min = node;
+            }
+            this.size++;
+            this.treeCount++;
+            return node;
+        }
+
+        /**
+         * Deletes the node containing the minimum key.
+         * @post: update minimum pointer
+         * @post: heap is consolidated to a binomial heap
+         * @time complexity: O(log(n)) amortized
+         */
+        public void deleteMin() {
+            ensureOpen();
+            if (this.isEmpty()) {
+                return;
+            }
+            long oldMin = this.min;
+            removeFromTreeList(oldMin);
+            addChildrenToTreeList(oldMin);
+            release(oldMin);
+            this.size--;
+            consolidate();
+        }
+
+        /**
+         * Deletes the node x from the heap.
+         * It is assumed that x indeed belongs to the heap.
+         * @time complexity: O(log(n)) amortized
+         */
+        public void delete(long x) {
+            ensureOpen();
+            if (x == this.min) {
+                this.deleteMin();
+                return;
+            }
+            long parent = link(x, PARENT);
+            if (parent != NIL) {
+                cut(x);
+                cascadingCut(parent);
+            }
+            removeFromTreeList(x);
+            addChildrenToTreeList(x);
+            release(x);
+            this.size--;
+        }
+
+        /**
+         * Decreases the key of the node x by a non-negative value delta, with cascading cuts if needed.
+         * @time complexity: O(1) amortized
+         */
+        public void decreaseKey(long x, int delta) {
+            ensureOpen();
+            if (this.isEmpty() || x == NIL || delta < 0) {
+                return;
+            }
+            int key = key(x) - delta;
+            chunk(x).putInt(offset(x) + KEY, key);
+            long parent = link(x, PARENT);
+            if (parent != NIL && key <= key(parent)) {
+                cut(x);
+                cascadingCut(parent);
+            }
+            if (key <= key(this.min)) {
+                this.min = x;
+            }
+        }
+
+        /**
+         * Melds heap2 into the current heap by copying its records into this heap's buffers.
+         * @post: heap2 is closed
+         * @return a table from heap2's handles to the new handles in this heap (NIL for free records)
+         * @time complexity: O(heap2's capacity)
+         */
+        public long[] meld(OffHeapFibonacciHeap heap2) {
+            ensureOpen();
+            heap2.ensureOpen();
+            long[] moved = new long[Math.toIntExact(heap2.allocated)];
+            for (long node = 0; node < heap2.allocated; node++) {
+                moved[(int) node] = heap2.link(node, PREV) == NIL ? NIL : allocate(heap2.key(node));
+            }
+            for (long node = 0; node < heap2.allocated; node++) {
+                long copy = moved[(int) node];
+                if (copy == NIL) {
+                    continue;
+                }
+                ByteBuffer chunk = chunk(copy);
+                int offset = offset(copy);
+                chunk.put(offset + RANK, (byte) heap2.rank(node));
+                chunk.put(offset + MARK, heap2.isMarked(node) ? (byte) 1 : (byte) 0);
+                for (int field = CHILD; field <= PREV; field += 8) {
+                    long target = heap2.link(node, field);
+                    chunk.putLong(offset + field, target == NIL ? NIL : moved[(int) target]);
+                }
+            }
+            if (!heap2.isEmpty()) {
+                long otherMin = moved[(int) heap2.min];
+                addToTreeList(moved[(int) heap2.treeListStart]);
+                if (this.min == NIL || key(otherMin) < key(this.min)) {
+                    this.min = otherMin;
+                }
+                this.treeCount += heap2.treeCount;
+                this.size += heap2.size;
+                this.markedCount += heap2.markedCount;
+            }
+            heap2.close();
+            return moved;
+        }
+
+        /**
+         * Return an array of counters. The i-th entry contains the number of trees of order i in the heap.
+         * @time complexity: O(#trees)
+         */
+        public int[] countersRep() {
+            ensureOpen();
+            if (this.isEmpty()) {
+                return new int[]{};
+            }
+            int[] arr = new int[MAX_RANK];
+            int maxRank = 0;
+            long tree = this.treeListStart;
+            do {
+                arr[rank(tree)]++;
+                maxRank = Math.max(maxRank, rank(tree));
+                tree = link(tree, NEXT);
+            } while (tree != this.treeListStart);
+            return Arrays.copyOf(arr, maxRank + 1);
+        }
+
+        /**
+         * Returns the k smallest keys in the heap, in ascending order, without changing the heap.
+         * The heap may hold any number of trees.
+         * @time complexity: O(#trees + k*deg(H)*log(k*deg(H)))
+         */
+        public static int[] kMin(OffHeapFibonacciHeap H, int k) {
+            H.ensureOpen();
+            k = (int) Math.min(k, H.size);
+            if (k <= 0) {
+                return new int[]{};
+            }
+            int[] minimalKeys = new int[k];
+            long[] frontier = new long[(int) Math.min(H.treeCount + (long) k * MAX_RANK, H.size)];
+            int frontierSize = 0;
+            long tree = H.treeListStart;
+            do {
+                frontierSize = H.frontierPush(frontier, frontierSize, tree);
+                tree = H.link(tree, NEXT);
+            } while (tree != H.treeListStart);
+            for (int i = 0; i < k; i++) {
+                long node = frontier[0];
+                minimalKeys[i] = H.key(node);
+                frontier[0] = frontier[--frontierSize];
+                H.frontierSiftDown(frontier, frontierSize);
+                long child = H.link(node, CHILD);
+                if (child != NIL) {
+                    long bro = child;
+                    do {
+                        frontierSize = H.frontierPush(frontier, frontierSize, bro);
+                        bro = H.link(bro, NEXT);
+                    } while (bro != child);
+                }
+            }
+            return minimalKeys;
+        }
+
+        /**
+         * Drops the buffers, whose memory the garbage collector frees later. Any further call of a public method
+         * other than close throws IllegalStateException.
+         * @time complexity: O(1)
+         */
+        @Override
+        public void close() {
+            this.closed = true;
+            this.chunks = null;
+            this.chunkCount = 0;
+            this.min = NIL;
+            this.treeListStart = NIL;
+            this.size = 0;
+            this.treeCount = 0;
+            this.markedCount = 0;
+        }
+
+        /**
+         * Pushes a handle onto a binary min-heap of handles ordered by key.
+         * @return the new size of the frontier
+         * @time complexity: O(log(n))
+         */
+        private int frontierPush(long[] frontier, int frontierSize, long node) {
+            int i = frontierSize;
+            int key = key(node);
+            while (i > 0 && key(frontier[(i - 1) / 2]) > key) {
+                frontier[i] = frontier[(i - 1) / 2];
+                i = (i - 1) / 2;
+            }
+            frontier[i] = node;
+            return frontierSize + 1;
+        }
+
+        /**
+         * Restores the order of a binary min-heap of handles after its root was replaced.
+         * @time complexity: O(log(n))
+         */
+        private void frontierSiftDown(long[] frontier, int frontierSize) {
+            int i = 0;
+            long node = frontier[0];
+            int key = key(node);
+            while (2 * i + 1 < frontierSize) {
+                int smallest = 2 * i + 1;
+                if (smallest + 1 < frontierSize && key(frontier[smallest + 1]) < key(frontier[smallest])) {
+                    smallest++;
+                }
+                if (key(frontier[smallest]) >= key) {
+                    break;
+                }
+                frontier[i] = frontier[smallest];
+                i = smallest;
+            }
+            frontier[i] = node;
+        }
+
+        /**
+         * Consolidate trees in the heap until we have a binomial heap, and find the new minimum on the way.
+         * @post: updates tree count, minimum and treeListStart pointer
+         * @time complexity: O(#trees + log(n))
+         */
+        private void consolidate() {
+            this.min = NIL;
+            if (this.treeListStart == NIL) {
+                return;
+            }
+            int maxRank = 0;
+            long tree = this.treeListStart;
+            for (long i = this.treeCount; i > 0; i--) {
+                long next = link(tree, NEXT);
+                int rank = rank(tree);
+                while (this.buckets[rank] != NIL) {
+                    // bucket is filled, connect nodes
+                    tree = connectTrees(this.buckets[rank], tree);
+                    this.buckets[rank] = NIL;
+                    rank++;
+                }
+                this.buckets[rank] = tree;
+                maxRank = Math.max(maxRank, rank);
+                tree = next;
+            }
+
+            // order new list
+            this.treeListStart = NIL;
+            this.treeCount = 0;
+            for (int rank = 0; rank <= maxRank; rank++) {
+                long node = this.buckets[rank];
+                if (node == NIL) {
+                    continue;
+                }
+                this.buckets[rank] = NIL;
+                setLink(node, NEXT, node);
+                setLink(node, PREV, node);
+                addToTreeList(node);
+                this.treeCount++;
+                if (this.min == NIL || key(node) < key(this.min)) {
+                    this.min = node;
+                }
+            }
+        }
+
+        /**
+         * Hangs the root with the larger key as the first child of the other root.
+         * @return the root of the connected two trees (smaller key)
+         * @time complexity: O(1)
+         */
+        private long connectTrees(long tree1, long tree2) {
+            long smaller = key(tree1) < key(tree2) ? tree1 : tree2;
+            long larger = smaller == tree1 ? tree2 : tree1;
+            long childStart = link(smaller, CHILD);
+            if (childStart == NIL) {
+                setLink(larger, NEXT, larger);
+                setLink(larger, PREV, larger);
+            } else {
+                long childEnd = link(childStart, PREV);
+                setLink(larger, NEXT, childStart);
+                setLink(childStart, PREV, larger);
+                setLink(childEnd, NEXT, larger);
+                setLink(larger, PREV, childEnd);
+            }
+            setLink(smaller, CHILD, larger);
+            setLink(larger, PARENT, smaller);
+            setRank(smaller, rank(smaller) + 1);
+            return smaller;
+        }
+
+        /**
+         * Cuts x from its parent and moves it to the start of the root list, unmarked.
+         * @time complexity: O(1)
+         */
+        private void cut(long x) {
+            long parent = link(x, PARENT);
+            long next = link(x, NEXT);
+            long prev = link(x, PREV);
+            setRank(parent, rank(parent) - 1);
+            if (link(parent, CHILD) == x) {
+                setLink(parent, CHILD, next == x ? NIL : next);
+            }
+            setLink(prev, NEXT, next);
+            setLink(next, PREV, prev);
+            setLink(x, PARENT, NIL);
+            setLink(x, NEXT, x);
+            setLink(x, PREV, x);
+            addToTreeList(x);
+            this.treeListStart = x;
+            this.treeCount++;
+            if (isMarked(x)) {
+                setMark(x, false);
+                this.markedCount--;
+            }
+        }
+
+        /**
+         * Walks up from node, cutting marked ancestors until an unmarked one, which gets marked.
+         * @time complexity: O(1) amortized
+         */
+        private void cascadingCut(long node) {
+            while (link(node, PARENT) != NIL) {
+                if (!isMarked(node)) {
+                    setMark(node, true);
+                    this.markedCount++;
+                    return;
+                }
+                long parent = link(node, PARENT);
+                cut(node);
+                node = parent;
+            }
+        }
+
+        /**
+         * Unlinks a root from the root list.
+         * @time complexity: O(1)
+         */
+        private void removeFromTreeList(long root) {
+            long next = link(root, NEXT);
+            if (next == root) {
+                this.treeListStart = NIL;
+            } else {
+                long prev = link(root, PREV);
+                setLink(prev, NEXT, next);
+                setLink(next, PREV, prev);
+                if (this.treeListStart == root) {
+                    this.treeListStart = next;
+                }
+            }
+            this.treeCount--;
+        }
+
+        /**
+         * Moves the children of node to the end of the root list, unmarked.
+         * @time complexity: O(rank(node))
+         */
+        private void addChildrenToTreeList(long node) {
+            long child = link(node, CHILD);
+            if (child == NIL) {
+                return;
+            }
+            long bro = child;
+            do {
+                setLink(bro, PARENT, NIL);
+                if (isMarked(bro)) {
+                    setMark(bro, false);
+                    this.markedCount--;
+                }
+                this.treeCount++;
+                bro = link(bro, NEXT);
+            } while (bro != child);
+            addToTreeList(child);
+            setLink(node, CHILD, NIL);
+            setRank(node, 0);
+        }
+
+        /**
+         * Adds a circular list starting at startListToInsert to the end of the root list.
+         * @time complexity: O(1)
+         */
+        private void addToTreeList(long startListToInsert) {
+            if (this.treeListStart == NIL) {
+                this.treeListStart = startListToInsert;
+                return;
+            }
+            long lastOrigin = link(this.treeListStart, PREV);
+            long lastListToInsert = link(startListToInsert, PREV);
+            setLink(lastOrigin, NEXT, startListToInsert);
+            setLink(startListToInsert, PREV, lastOrigin);
+            setLink(lastListToInsert, NEXT, this.treeListStart);
+            setLink(this.treeListStart, PREV, lastListToInsert);
+        }
+
+        /**
+         * Takes a record from the free list, or a fresh one, and makes it a lonely node with key.
+         * @time complexity: O(1) amortized (a new buffer is allocated every 2^20 records)
+         */
+        private long allocate(int key) {
+            long node;
+            if (this.freeList != NIL) {
+                node = this.freeList;
+                this.freeList = link(node, NEXT);
+            } else {
+                if (this.allocated == (long) this.chunkCount << CHUNK_SHIFT) {
+                    addChunk();
+                }
+                node = this.allocated++;
+            }
+            ByteBuffer chunk = chunk(node);
+            int offset = offset(node);
+            chunk.putInt(offset + KEY, key);
+            chunk.put(offset + RANK, (byte) 0);
+            chunk.put(offset + MARK, (byte) 0);
+            chunk.putLong(offset + CHILD, NIL);
+            chunk.putLong(offset + PARENT, NIL);
+            chunk.putLong(offset + NEXT, node);
+            chunk.putLong(offset + PREV, node);
+            return node;
+        }
+
+        /**
+         * Puts a deleted node's record on the free list.
+         * @post: PREV == NIL marks the record as free
+         * @time complexity: O(1)
+         */
+        private void release(long node) {
+            if (isMarked(node)) {
+                setMark(node, false);
+                this.markedCount--;
+            }
+            setLink(node, CHILD, NIL);
+            setLink(node, PARENT, NIL);
+            setLink(node, PREV, NIL);
+            setLink(node, NEXT, this.freeList);
+            this.freeList = node;
+        }
+
+        /**
+         * Allocates one more direct buffer of 2^20 records.
+         * @time complexity: O(1) amortized
+         */
+        private void addChunk() {
+            if (this.chunkCount == this.chunks.length) {
+                this.chunks = Arrays.copyOf(this.chunks, this.chunkCount * 2);
+            }
+            this.chunks[this.chunkCount++] = ByteBuffer.allocateDirect(RECORD_SIZE << CHUNK_SHIFT)
+                    .order(ByteOrder.nativeOrder());
+        }
+
+        /**
+         * @time complexity: O(1)
+         */
+        private void ensureOpen() {
+            if (this.closed) {
+                throw new IllegalStateException("heap is closed");
+            }
+        }
+
+        /**
+         * @time complexity: O(1)
+         */
+        private ByteBuffer chunk(long node) {
+            return this.chunks[(int) (node >>> CHUNK_SHIFT)];
+        }
+
+        /**
+         * @time complexity: O(1)
+         */
+        private static int offset(long node) {
+            return ((int) node & CHUNK_MASK) * RECORD_SIZE;
+        }
+
+        /**
+         * @time complexity: O(1)
+         */
+        private int key(long node) {
+            return chunk(node).getInt(offset(node) + KEY);
+        }
+
+        /**
+         * @time complexity: O(1)
+         */
+        private int rank(long node) {
+            return chunk(node).get(offset(node) + RANK);
+        }
+
+        /**
+         * @time complexity: O(1)
+         */
+        private void setRank(long node, int rank) {
+            chunk(node).put(offset(node) + RANK, (byte) rank);
+        }
+
+        /**
+         * @time complexity: O(1)
+         */
+        private boolean isMarked(long node) {
+            return chunk(node).get(offset(node) + MARK) != 0;
+        }
+
+        /**
+         * @time complexity: O(1)
+         */
+        private void setMark(long node, boolean mark) {
+            chunk(node).put(offset(node) + MARK, mark ? (byte) 1 : (byte) 0);
+        }
+
+        /**
+         * Reads one of the CHILD, PARENT, NEXT or PREV fields.
+         * @time complexity: O(1)
+         */
+        private long link(long node, int field) {
+            return chunk(node).getLong(offset(node) + field);
+        }
+
+        /**
+         * Writes one of the CHILD, PARENT, NEXT or PREV fields.
+         * @time complexity: O(1)
+         */
+        private void setLink(long node, int field, long target) {
+            chunk(node).putLong(offset(node) + field, target);
+        }
+    }
+
+    /**
+     * LinkedFibonacciHeap
+     *
+     * The tree structure shared by the heaps whose nodes are objects linked by references: GenericFibonacciHeap,
+     * LongFibonacciHeap and DoubleFibonacciHeap. The subclasses keep the keys in their nodes and compare them in
+     * less, so the primitive heaps never box a key.
+     */
+    abstract static class LinkedFibonacciHeap<N extends LinkedFibonacciHeap.LinkedNode<N>> {
+        static final int MAX_RANK = 64;
+
+        // fields of the heap.
+        N min;
+        N treeListStart;
+        int treeCount;
+        int size;
+        int markedCount;
+        private final N[] buckets;
+
+        @SuppressWarnings("unchecked")
+        LinkedFibonacciHeap() {
+            // rank <= log_phi(size) < 45 for an int size
+            this.buckets = (N[]) new LinkedNode<?>[MAX_RANK];
+        }
+
+        /**
+         * Returns true iff the key of a is smaller than the key of b.
+         * @time complexity: O(1)
+         */
+        abstract boolean less(N a, N b);
+
+        /**
+         * Returns the node of the heap whose key is minimal, or null if the heap is empty.
+         * @time complexity: O(1)
+         */
+        public N findMin() {
+            return this.min;
+        }
+
+        /**
+         * Returns the number of trees in the heap.
+         * @time complexity: O(1)
+         */
+        public int getTreeCount() {
+            return this.treeCount;
+        }
+
+        /**
+         * Returns the sum of the marked nodes in the heap.
+         * @time complexity: O(1)
+         */
+        public int getMarkedCount() {
+            return this.markedCount;
+        }
+
+        /**
+         * Returns the number of elements in the heap.
+         * @time complexity: O(1)
+         */
+        public int size() {
+            return this.size;
+        }
+
+        /**
+         * Returns true if and only if the heap is empty.
+         * @time complexity: O(1)
+         */
+        public boolean isEmpty() {
+            return this.size < 1;
+        }
+
+        /**
+         * Inserts a new lonely node into the heap.
+         * @return node
+         * @time complexity: O(1)
+         */
+        N insertNode(N node) {
+            addToTreeList(node);
+            this.treeListStart = node;
+            if (this.min == null || less(node, this.min)) {
+                this.min = node;
+            }
+            this.size++;
+            this.treeCount++;
+            return node;
+        }
+
+        /**
+         * Deletes the node containing the minimum key.
+         * @post: update minimum pointer
+         * @post: heap is consolidated to a binomial heap
+         * @return the deleted node, or null if the heap was empty
+         * @time complexity: O(log(n)) amortized
+         */
+        N deleteMinNode() {
+            N oldMin = this.min;
+            if (oldMin == null) {
+                return null;
+            }
+            removeFromTreeList(oldMin);
+            addChildrenToTreeList(oldMin);
+            this.size--;
+            consolidate();
+            return oldMin;
+        }
+
+        /**
+         * Deletes the node x from the heap.
+         * It is assumed that x indeed belongs to the heap.
+         * @time complexity: O(log(n)) amortized
+         */
+        public void delete(N x) {
+            if (x == this.min) {
+                this.deleteMinNode();
+                return;
+            }
+            N parent = x.parent;
+            if (parent != null) {
+                cut(x);
+                cascadingCut(parent);
+            }
+            removeFromTreeList(x);
+            addChildrenToTreeList(x);
+            this.size--;
+        }
+
+        /**
+         * Restores the heap after the key of x was decreased, with cascading cuts if needed.
+         * @time complexity: O(1) amortized
+         */
+        void keyDecreased(N x) {
+            N parent = x.parent;
+            if (parent != null && !less(parent, x)) {
+                cut(x);
+                cascadingCut(parent);
+            }
+            if (!less(this.min, x)) {
+                this.min = x;
+            }
+        }
+
+        /**
+         * Melds heap2 with the current heap.
+         * @post: heap2 is empty
+         * @time complexity: O(1)
+         */
+        void meldWith(LinkedFibonacciHeap<N> heap2) {
+            if (heap2.isEmpty()) {
+                return;
+            }
+            if (this.isEmpty() || less(heap2.min, this.min)) {
+                this.min = heap2.min;
+            }
+            addToTreeList(heap2.treeListStart);
+            this.treeCount += heap2.treeCount;
+            this.size += heap2.size;
+            this.markedCount += heap2.markedCount;
+            heap2.min = null;
+            heap2.treeListStart = null;
+            heap2.treeCount = 0;
+            heap2.size = 0;
+            heap2.markedCount = 0;
+        }
+
+        /**
+         * Return an array of counters. The i-th entry contains the number of trees of order i in the heap.
+         * @time complexity: O(#trees)
+         */
+        public int[] countersRep() {
+            if (this.isEmpty()) {
+                return new int[]{};
+            }
+            int maxRank = 0;
+            N tree = this.treeListStart;
+            do {
+                maxRank = Math.max(maxRank, tree.rank);
+                tree = tree.next;
+            } while (tree != this.treeListStart);
+            int[] arr = new int[maxRank + 1];
+            do {
+                arr[tree.rank]++;
+                tree = tree.next;
+            } while (tree != this.treeListStart);
+            return arr;
+        }
+
+        /**
+         * Fills minimalNodes with the nodes with the smallest keys, in ascending order, without changing the heap.
+         * The heap may hold any number of trees.
+         * @pre: 0 < minimalNodes.length <= size
+         * @time complexity: O(#trees + k*deg(H)*log(k*deg(H)))
+         */
+        @SuppressWarnings("unchecked")
+        void kMinNodes(N[] minimalNodes) {
+            int k = minimalNodes.length;
+            N[] frontier = (N[]) new LinkedNode<?>[(int) Math.min(this.treeCount + (long) k * MAX_RANK, this.size)];
+            int frontierSize = 0;
+            N tree = this.treeListStart;
+            do {
+                frontierSize = frontierPush(frontier, frontierSize, tree);
+                tree = tree.next;
+            } while (tree != this.treeListStart);
+            for (int i = 0; i < k; i++) {
+                N node = frontier[0];
+                minimalNodes[i] = node;
+                frontier[0] = frontier[--frontierSize];
+                frontierSiftDown(frontier, frontierSize);
+                N child = node.child;
+                if (child != null) {
+                    N bro = child;
+                    do {
+                        frontierSize = frontierPush(frontier, frontierSize, bro);
+                        bro = bro.next;
+                    } while (bro != child);
+                }
+            }
+        }
+
+        /**
+         * Pushes a node onto a binary min-heap of nodes.
+         * @return the new size of the frontier
+         * @time complexity: O(log(n))
+         */
+        private int frontierPush(N[] frontier, int frontierSize, N node) {
+            int i = frontierSize;
+            while (i > 0 && less(node, frontier[(i - 1) / 2])) {
+                frontier[i] = frontier[(i - 1) / 2];
+                i = (i - 1) / 2;
+            }
+            frontier[i] = node;
+            return frontierSize + 1;
+        }
+
+        /**
+         * Restores the order of a binary min-heap of nodes after its root was replaced.
+         * @time complexity: O(log(n))
+         */
+        private void frontierSiftDown(N[] frontier, int frontierSize) {
+            int i = 0;
+            N node = frontier[0];
+            while (2 * i + 1 < frontierSize) {
+                int smallest = 2 * i + 1;
+                if (smallest + 1 < frontierSize && less(frontier[smallest + 1], frontier[smallest])) {
+                    smallest++;
+                }
+                if (!less(frontier[smallest], node)) {
+                    break;
+                }
+                frontier[i] = frontier[smallest];
+                i = smallest;
+            }
+            frontier[i] = node;
+        }
+
+        /**
+         * Consolidate trees in the heap until we have a binomial heap, and find the new minimum on the way.
+         * @post: updates tree count, minimum and treeListStart pointer
+         * @time complexity: O(#trees + log(n))
+         */
+        private void consolidate() {
+            this.min = null;
+            if (this.treeListStart == null) {
+                return;
+            }
+            int maxRank = 0;
+            N tree = this.treeListStart;
+            for (int i = this.treeCount; i > 0; i--) {
+                N next = tree.next;
+                int rank = tree.rank;
+                while (this.buckets[rank] != null) {
+                    // bucket is filled, connect nodes
+                    tree = connectTrees(this.buckets[rank], tree);
+                    this.buckets[rank] = null;
+                    rank++;
+                }
+                this.buckets[rank] = tree;
+                maxRank = Math.max(maxRank, rank);
+                tree = next;
+            }
+
+            // order new list
+            this.treeListStart = null;
+            this.treeCount = 0;
+            for (int rank = 0; rank <= maxRank; rank++) {
+                N node = this.buckets[rank];
+                if (node == null) {
+                    continue;
+                }
+                this.buckets[rank] = null;
+                node.next = node;
+                node.prev = node;
+                addToTreeList(node);
+                this.treeCount++;
+                if (this.min == null || less(node, this.min)) {
+                    this.min = node;
+                }
+            }
+        }
+
+        /**
+         * Hangs the root with the larger key as the first child of the other root.
+         * @return the root of the connected two trees (smaller key)
+         * @time complexity: O(1)
+         */
+        private N connectTrees(N tree1, N tree2) {
+            N smaller = less(tree1, tree2) ? tree1 : tree2;
+            N larger = smaller == tree1 ? tree2 : tree1;
+            N childStart = smaller.child;
+            if (childStart == null) {
+                larger.next = larger;
+                larger.prev = larger;
+            } else {
+                N childEnd = childStart.prev;
+                larger.next = childStart;
+                childStart.prev = larger;
+                childEnd.next = larger;
+                larger.prev = childEnd;
+            }
+            smaller.child = larger;
+            larger.parent = smaller;
+            smaller.rank++;
+            return smaller;
+        }
+
+        /**
+         * Cuts x from its parent and moves it to the start of the root list, unmarked.
+         * @time complexity: O(1)
+         */
+        private void cut(N x) {
+            N parent = x.parent;
+            parent.rank--;
+            if (parent.child == x) {
+                parent.child = x.next == x ? null : x.next;
+            }
+            x.prev.next = x.next;
+            x.next.prev = x.prev;
+            x.parent = null;
+            x.next = x;
+            x.prev = x;
+            addToTreeList(x);
+            this.treeListStart = x;
+            this.treeCount++;
+            if (x.mark) {
+                x.mark = false;
+                this.markedCount--;
+            }
+        }
+
+        /**
+         * Walks up from node, cutting marked ancestors until an unmarked one, which gets marked.
+         * @time complexity: O(1) amortized
+         */
+        private void cascadingCut(N node) {
+            while (node.parent != null) {
+                if (!node.mark) {
+                    node.mark = true;
+                    this.markedCount++;
+                    return;
+                }
+                N parent = node.parent;
+                cut(node);
+                node = parent;
+            }
+        }
+
+        /**
+         * Unlinks a root from the root list.
+         * @time complexity: O(1)
+         */
+        private void removeFromTreeList(N root) {
+            if (root.next == root) {
+                this.treeListStart = null;
+            } else {
+                root.prev.next = root.next;
+                root.next.prev = root.prev;
+                if (this.treeListStart == root) {
+                    this.treeListStart = root.next;
+                }
+            }
+            this.treeCount--;
+        }
+
+        /**
+         * Moves the children of node to the end of the root list, unmarked.
+         * @time complexity: O(rank(node))
+         */
+        private void addChildrenToTreeList(N node) {
+            N child = node.child;
+            if (child == null) {
+                return;
+            }
+            N bro = child;
+            do {
+                bro.parent = null;
+                if (bro.mark) {
+                    bro.mark = false;
+                    this.markedCount--;
+                }
+                this.treeCount++;
+                bro = bro.next;
+            } while (bro != child);
+            addToTreeList(child);
+            node.child = null;
+            node.rank = 0;
+        }
+
+        /**
+         * Adds a circular list starting at startListToInsert to the end of the root list.
+         * @time complexity: O(1)
+         */
+        private void addToTreeList(N startListToInsert) {
+            if (this.treeListStart == null) {
+                this.treeListStart = startListToInsert;
+                return;
+            }
+            N lastOrigin = this.treeListStart.prev;
+            N lastListToInsert = startListToInsert.prev;
+            lastOrigin.next = startListToInsert;
+            startListToInsert.prev = lastOrigin;
+            lastListToInsert.next = this.treeListStart;
+            this.treeListStart.prev = lastListToInsert;
+        }
+
+        /**
+         * The links of a node of LinkedFibonacciHeap. The subclasses add the key.
+         */
+        abstract static class LinkedNode<N extends LinkedNode<N>> {
+            int rank;
+            boolean mark;
+            N child;
+            N parent;
+            N next;
+            N prev;
+
+            /**
+             * Constructs a lonely node.
+             * @time complexity: O(1)
+             */
+            @SuppressWarnings("unchecked")
+            LinkedNode() {
+                this.next = (N) this;
+                this.prev = (N) this;
+            }
+
+            /**
+             * Returns the rank of this.
+             * @time complexity: O(1)
+             */
+            public int getRank() {
+                return this.rank;
+            }
+
+            /**
+             * Returns true iff this is marked.
+             * @time complexity: O(1)
+             */
+            public boolean isMarked() {
+                return this.mark;
+            }
+
+            /**
+             * Returns the parent of this, or null for a root.
+             * @time complexity: O(1)
+             */
+            public N getParent() {
+                return this.parent;
+            }
+        }
+    }
+
+    /**
+     * GenericFibonacciHeap
+     *
+     * A Fibonacci heap ordered by keys of any type, either Comparable or ordered by a given Comparator,
+     * with a value attached to every node. FibonacciHeap stays the fast path for int keys.
+     */
+    public static class GenericFibonacciHeap<K, V> extends LinkedFibonacciHeap<GenericFibonacciHeap.Node<K, V>> {
+        private final Comparator<? super K> comparator;
+
+        /**
+         * Creates an empty heap ordered by the natural ordering of the keys, which must be Comparable.
+         * @time complexity: O(1)
+         */
+        public GenericFibonacciHeap() {
+            this(null);
+        }
+
+        /**
+         * Creates an empty heap ordered by comparator, or by natural ordering if comparator is null.
+         * @time complexity: O(1)
+         */
+        public GenericFibonacciHeap(Comparator<? super K> comparator) {
+            this.comparator = comparator;
+        }
+
+        @Override
+        boolean less(Node<K, V> a, Node<K, V> b) {
+            return compare(a.key, b.key) < 0;
+        }
+
+        /**
+         * Creates a node which contains the given key and value, and inserts it into the heap.
+         * @return the new node
+         * @time complexity: O(1)
+         */
+        public Node<K, V> insert(K key, V value) {
+            return insertNode(new Node<>(key, value));
+        }
+
+        /**
+         * Deletes the node containing the minimum key.
+         * @post: update minimum pointer
+         * @post: heap is consolidated to a binomial heap
+         * @return the deleted node, so its value is at hand, or null if the heap was empty
+         * @time complexity: O(log(n)) amortized
+         */
+        public Node<K, V> deleteMin() {
+            return deleteMinNode();
+        }
+
+        /**
+         * Replaces the key of the node x by newKey, which must not be larger than the current key.
+         * A larger key leaves the heap unchanged, like a negative delta in FibonacciHeap.decreaseKey.
+         * @time complexity: O(1) amortized
+         */
+        public void decreaseKey(Node<K, V> x, K newKey) {
+            if (this.isEmpty() || x == null || compare(newKey, x.key) > 0) {
+                return;
+            }
+            x.key = newKey;
+            keyDecreased(x);
+        }
+
+        /**
+         * Melds heap2 with the current heap.
+         * @pre: both heaps order keys the same way
+         * @post: heap2 is empty
+         * @time complexity: O(1)
+         */
+        public void meld(GenericFibonacciHeap<K, V> heap2) {
+            meldWith(heap2);
+        }
+
+        /**
+         * Compares two keys with the comparator, or by natural ordering.
+         * @time complexity: O(1)
+         */
+        @SuppressWarnings("unchecked")
+        private int compare(K key1, K key2) {
+            if (this.comparator != null) {
+                return this.comparator.compare(key1, key2);
+            }
+            return ((Comparable<? super K>) key1).compareTo(key2);
+        }
+
+        /**
+         * A node of GenericFibonacciHeap, carrying a key and a value.
+         */
+        public static class Node<K, V> extends LinkedNode<Node<K, V>> {
+            private K key;
+            private V value;
+
+            /**
+             * Constructs a lonely node.
+             * @time complexity: O(1)
+             */
+            private Node(K key, V value) {
+                this.key = key;
+                this.value = value;
+            }
+
+            /**
+             * Returns the key of this.
+             * @time complexity: O(1)
+             */
+            public K getKey() {
+                return this.key;
+            }
+
+            /**
+             * Returns the value attached to this.
+             * @time complexity: O(1)
+             */
+            public V getValue() {
+                return this.value;
+            }
+
+            /**
+             * Replaces the value attached to this.
+             * @time complexity: O(1)
+             */
+            public void setValue(V value) {
+                this.value = value;
+            }
+
+            @Override
+            public String toString() {
+                return "(%s=%s)".formatted(this.key, this.value);
+            }
+        }
+    }
+
+    /**
+     * LongFibonacciHeap
+     *
+     * A Fibonacci heap over long keys, with the same operations as FibonacciHeap and no boxing.
+     */
+    public static class LongFibonacciHeap extends LinkedFibonacciHeap<LongFibonacciHeap.Node> {
+        @Override
+        boolean less(Node a, Node b) {
+            return a.key < b.key;
+        }
+
+        /**
+         * Creates a node which contains the given key, and inserts it into the heap.
+         * @return the new node
+         * @time complexity: O(1)
+         */
+        public Node insert(long key) {
+            return insertNode(new Node(key));
+        }
+
+        /**
+         * Deletes the node containing the minimum key.
+         * @post: update minimum pointer
+         * @post: heap is consolidated to a binomial heap
+         * @time complexity: O(log(n)) amortized
+         */
+        public void deleteMin() {
+            deleteMinNode();
+        }
+
+        /**
+         * Decreases the key of the node x by a non-negative value delta, with cascading cuts if needed.
+         * @time complexity: O(1) amortized
+         */
+        public void decreaseKey(Node x, long delta) {
+            if (this.isEmpty() || x == null || delta < 0) {
+                return;
+            }
+            x.key -= delta;
+            keyDecreased(x);
+        }
+
+        /**
+         * Melds heap2 with the current heap.
+         * @post: heap2 is empty
+         * @time complexity: O(1)
+         */
+        public void meld(LongFibonacciHeap heap2) {
+            meldWith(heap2);
+        }
+
+        /**
+         * Returns the k smallest keys in the heap, in ascending order, without changing the heap.
+         * The heap may hold any number of trees.
+         * @time complexity: O(#trees + k*deg(H)*log(k*deg(H)))
+         */
+        public static long[] kMin(LongFibonacciHeap H, int k) {
+            k = Math.min(k, H.size);
+            if (k <= 0) {
+                return new long[]{};
+            }
+            Node[] nodes = new Node[k];
+            H.kMinNodes(nodes);
+            long[] minimalKeys = new long[k];
+            for (int i = 0; i < k; i++) {
+                minimalKeys[i] = nodes[i].key;
+            }
+            return minimalKeys;
+        }
+
+        /**
+         * A node of LongFibonacciHeap.
+         */
+        public static class Node extends LinkedNode<Node> {
+            private long key;
+
+            /**
+             * Constructs a lonely node with key.
+             * @time complexity: O(1)
+             */
+            private Node(long key) {
+                this.key = key;
+            }
+
+            /**
+             * Returns the key of this.
+             * @time complexity: O(1)
+             */
+            public long getKey() {
+                return this.key;
+            }
+
+            @Override
+            public String toString() {
+                return "(" + this.key + ")";
+            }
+        }
+    }
+
+    /**
+     * DoubleFibonacciHeap
+     *
+     * A Fibonacci heap over double keys, with the same operations as FibonacciHeap and no boxing.
+     * Keys are assumed not to be NaN; a NaN delta is ignored like a negative one.
+     */
+    public static class DoubleFibonacciHeap extends LinkedFibonacciHeap<DoubleFibonacciHeap.Node> {
+        @Override
+        boolean less(Node a, Node b) {
+            return a.key < b.key;
+        }
+
+        /**
+         * Creates a node which contains the given key, and inserts it into the heap.
+         * @return the new node
+         * @time complexity: O(1)
+         */
+        public Node insert(double key) {
+            return insertNode(new Node(key));
+        }
+
+        /**
+         * Deletes the node containing the minimum key.
+         * @post: update minimum pointer
+         * @post: heap is consolidated to a binomial heap
+         * @time complexity: O(log(n)) amortized
+         */
+        public void deleteMin() {
+            deleteMinNode();
+        }
+
+        /**
+         * Decreases the key of the node x by a non-negative value delta, with cascading cuts if needed.
+         * @time complexity: O(1) amortized
+         */
+        public void decreaseKey(Node x, double delta) {
+            if (this.isEmpty() || x == null || !(delta >= 0)) {
+                return;
+            }
+            x.key -= delta;
+            keyDecreased(x);
+        }
+
+        /**
+         * Melds heap2 with the current heap.
+         * @post: heap2 is empty
+         * @time complexity: O(1)
+         */
+        public void meld(DoubleFibonacciHeap heap2) {
+            meldWith(heap2);
+        }
+
+        /**
+         * Returns the k smallest keys in the heap, in ascending order, without changing the heap.
+         * The heap may hold any number of trees.
+         * @time complexity: O(#trees + k*deg(H)*log(k*deg(H)))
+         */
+        public static double[] kMin(DoubleFibonacciHeap H, int k) {
+            k = Math.min(k, H.size);
+            if (k <= 0) {
+                return new double[]{};
+            }
+            Node[] nodes = new Node[k];
+            H.kMinNodes(nodes);
+            double[] minimalKeys = new double[k];
+            for (int i = 0; i < k; i++) {
+                minimalKeys[i] = nodes[i].key;
+            }
+            return minimalKeys;
+        }
+
+        /**
+         * A node of DoubleFibonacciHeap.
+         */
+        public static class Node extends LinkedNode<Node> {
+            private double key;
+
+            /**
+             * Constructs a lonely node with key.
+             * @time complexity: O(1)
+             */
+            private Node(double key) {
+                this.key = key;
+            }
+
+            /**
+             * Returns the key of this.
+             * @time complexity: O(1)
+             */
+            public double getKey() {
+                return this.key;
+            }
+
+            @Override
+            public String toString() {
+                return "(" + this.key + ")";
+            }
+        }
+    }
+
+    /**
+     * ConcurrentFibonacciHeap
+     *
+     * A thread-safe facade over FibonacciHeap.
+     * insert is lock-free: new nodes are pushed on a staging stack, and the next locked operation
+     * splices the whole stack into the root list at once, like meld. All other operations hold a short lock.
+     */
+    public static class ConcurrentFibonacciHeap {
+        private final FibonacciHeap heap = new FibonacciHeap();
+        private final ReentrantLock lock = new ReentrantLock();
+        // inserted nodes not yet in the heap, chained through next
+        private final AtomicReference<HeapNode> staged = new AtomicReference<>();
+
+        /**
+         * Creates a node which contains the given key and stages it for insertion, without locking.
+         * @return the new node, which can be passed to decreaseKey and delete right away
+         * @time complexity: O(1)
+         */
+        public HeapNode insert(int key) {
+            HeapNode node = new HeapNode(key);
+            HeapNode head;
+            do {
+                head = this.staged.get();
+                node.next = head;
+            } while (!this.staged.compareAndSet(head, node));
+            return node;
+        }
+
+        /**
+         * Returns the key of the minimal node, or null if the heap is empty.
+         * @time complexity: O(k) for k staged inserts
+         */
+        public Integer findMinKey() {
+            this.lock.lock();
+            try {
+                drainStaged();
+                return this.heap.isEmpty() ? null : this.heap.min.key;
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        /**
+         * Deletes the node containing the minimum key.
+         * @return the deleted node, or null if the heap was empty
+         * @time complexity: O(log(n)) amortized, plus O(k) for k staged inserts
+         */
+        public HeapNode deleteMin() {
+            this.lock.lock();
+            try {
+                drainStaged();
+                HeapNode oldMin = this.heap.min;
+                if (oldMin != null) {
+                    this.heap.deleteMin();
+                    // marks the node as removed, see decreaseKey and delete
+                    oldMin.prev = null;
+                }
+                return oldMin;
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        /**
+         * Decreases the key of the node x by a non-negative value delta.
+         * Does nothing if x was already removed by another thread.
+         * @time complexity: O(1) amortized, plus O(k) for k staged inserts
+         */
+        public void decreaseKey(HeapNode x, int delta) {
+            this.lock.lock();
+            try {
+                drainStaged();
+                if (x.prev == null) {
+                    return;
+                }
+                this.heap.decreaseKey(x, delta);
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        /**
+         * Deletes the node x from the heap.
+         * Does nothing if x was already removed by another thread.
+         * @time complexity: as FibonacciHeap.delete, plus O(k) for k staged inserts
+         */
+        public void delete(HeapNode x) {
+            this.lock.lock();
+            try {
+                drainStaged();
+                if (x.prev == null) {
+                    return;
+                }
+                this.heap.delete(x);
+                x.prev = null;
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        /**
+         * Returns the number of elements in the heap, staged inserts included.
+         * @time complexity: O(k) for k staged inserts
+         */
+        public int size() {
+            this.lock.lock();
+            try {
+                drainStaged();
+                return this.heap.size();
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        /**
+         * Returns true if and only if the heap is empty.
+         * @time complexity: O(k) for k staged inserts
+         */
+        public boolean isEmpty() {
+            return this.size() == 0;
+        }
+
+        /**
+         * Returns the operation statistics of the underlying heap. Can be read without the lock.
+         * @time complexity: O(1)
+         */
+        public HeapStats getStats() {
+            return this.heap.getStats();
+        }
+
+        /**
+         * Takes every staged node, links them into one circular list and melds it into the heap.
+         * @pre: lock is held
+         * @time complexity: O(k) for k staged inserts
+         */
+        private void drainStaged() {
+            HeapNode head = this.staged.getAndSet(null);
+            if (head == null) {
+                return;
+            }
+            int count = 0;
+            HeapNode min = head;
+            HeapNode node = head;
+            HeapNode last = null;
+            while (node != null) {
+                HeapNode next = node.next;
+                node.prev = last;
+                if (last != null) {
+                    last.next = node;
+                }
+                if (node.key < min.key) {
+                    min = node;
+                }
+                last = node;
+                count++;
+                node = next;
+            }
+            // close the circle
+            last.next = head;
+            head.prev = last;
+            this.heap.meld(new FibonacciHeap(min, head, count, count, 0));
+        }
+    }
+
+    /**
+     * JournaledFibonacciHeap
+     *
+     * A FibonacciHeap whose changes are appended to an operation log, so it can be rebuilt after a crash.
+     * Every inserted node gets an id, one more than the last one, which the log uses to refer to it.
+     * Records are collected in memory and written as one frame per group commit: every batchSize operations,
+     * or when commit() is called, the frame is written and forced to disk. An operation is durable once its
+     * frame is. checkpoint() writes the heap with its ids to the snapshot file and empties the log; open()
+     * reads the snapshot back and replays the frames written after it.
+     *
+     * A frame is its sequence number (long), payload length (int) and CRC32 of the payload (int), then the
+     * records. A record is an opcode byte: INSERT with the key, DECREASE_KEY with the id and delta,
+     * DELETE with the id, and DELETE_MIN with the id of the removed node, since ties between equal keys
+     * need not break the same way on the replayed heap. A torn or corrupt frame ends the log.
+     * Not thread-safe, as FibonacciHeap.
+     */
+    public static class JournaledFibonacciHeap implements AutoCloseable {
+        private static final int SNAPSHOT_MAGIC = 0x46494a4c; // "FIJL"
+        private static final int SNAPSHOT_HEADER_BYTES = 20;
+        private static final int FRAME_HEADER_BYTES = 16;
+        private static final byte INSERT = 1;
+        private static final byte DECREASE_KEY = 2;
+        private static final byte DELETE = 3;
+        private static final byte DELETE_MIN = 4;
+        private static final int MAX_RECORD_BYTES = 13;
+
+        private final IdHeap heap;
+        private final Path snapshotFile;
+        private final FileChannel log;
+        private final int batchSize;
+        private final ByteBuffer frameHeader = ByteBuffer.allocate(FRAME_HEADER_BYTES);
+        private final ByteBuffer records;
+        private final CRC32 checksum = new CRC32();
+        private int pendingRecords;
+        private long nextId;
+        // sequence number of the last frame written, or contained in the snapshot
+        private long lastFrame;
+
+        /**
+         * A node with the id the log refers to it by.
+         */
+        public static final class JournaledNode extends HeapNode {
+            private long id;
+
+            private JournaledNode(int key) {
+                super(key);
+            }
+
+            /**
+             * Returns the id of this node, which stays the same after a crash and a replay.
+             * @time complexity: O(1)
+             */
+            public long getId() {
+                return this.id;
+            }
+        }
+
+        /**
+         * The heap inside, which makes JournaledNodes.
+         */
+        private static final class IdHeap extends FibonacciHeap {
+            @Override
+            protected HeapNode createNode(int key) {
+                return new JournaledNode(key);
+            }
+        }
+
+        private JournaledFibonacciHeap(IdHeap heap, Path snapshotFile, FileChannel log, int batchSize) {
+            this.heap = heap;
+            this.snapshotFile = snapshotFile;
+            this.log = log;
+            this.batchSize = batchSize;
+            this.records = ByteBuffer.allocate(batchSize * MAX_RECORD_BYTES);
+        }
+
+        /**
+         * Opens the journaled heap kept in snapshotFile and logFile, creating both if they do not exist.
+         * The heap is read from the snapshot, and every whole frame of the log written after it is replayed.
+         * A torn frame at the end of the log, from a crash during a commit, is cut off.
+         * @param batchSize operations per group commit
+         * @throws IOException if the snapshot is not one written by checkpoint
+         * @time complexity: O(n) for the snapshot, plus the operations in the log
+         */
+        public static JournaledFibonacciHeap open(Path snapshotFile, Path logFile, int batchSize)
+                throws IOException {
+            if (batchSize < 1) {
+                throw new IllegalArgumentException("batch size must be positive, got " + batchSize);
+            }
+            IdHeap heap = new IdHeap();
+            long nextId = 0;
+            long lastFrame = 0;
+            if (Files.exists(snapshotFile)) {
+                try (FileChannel channel = FileChannel.open(snapshotFile, StandardOpenOption.READ)) {
+                    ByteBuffer header = ByteBuffer.allocate(SNAPSHOT_HEADER_BYTES);
+                    readFully(channel, header);
+                    header.flip();
+                    if (header.getInt() != SNAPSHOT_MAGIC) {
+                        throw new IOException("not a journal snapshot: " + snapshotFile);
+                    }
+                    nextId = header.getLong();
+                    lastFrame = header.getLong();
+                    readInto(heap, channel, FORMAT_READ_WINDOW_BYTES,
+                            (node, id) -> ((JournaledNode) node).id = id);
+                }
+            }
+            FileChannel log = FileChannel.open(logFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            JournaledFibonacciHeap journaled = new JournaledFibonacciHeap(heap, snapshotFile, log, batchSize);
+            journaled.nextId = nextId;
+            journaled.lastFrame = lastFrame;
+            try {
+                journaled.replay();
+            } catch (IOException | RuntimeException e) {
+                log.close();
+                throw e;
+            }
+            return journaled;
+        }
+
+        /**
+         * Applies the frames of the log newer than the snapshot, and truncates the log after the last whole one.
+         * @time complexity: O(operations in the log)
+         */
+        private void replay() throws IOException {
+            LongNodeMap nodes = new LongNodeMap(this.heap.size());
+            this.heap.nodes().forEach(node -> nodes.put(((JournaledNode) node).id, node));
+            long position = 0;
+            ByteBuffer header = ByteBuffer.allocate(FRAME_HEADER_BYTES);
+            while (true) {
+                header.clear();
+                if (this.log.read(header, position) < FRAME_HEADER_BYTES || header.hasRemaining()) {
+                    break;
+                }
+                header.flip();
+                long frame = header.getLong();
+                int length = header.getInt();
+                int crc = header.getInt();
+                if (length < 0 || position + FRAME_HEADER_BYTES + length > this.log.size()) {
+                    break;
+                }
+                ByteBuffer payload = ByteBuffer.allocate(length);
+                this.log.read(payload, position + FRAME_HEADER_BYTES);
+                this.checksum.reset();
+                this.checksum.update(payload.array(), 0, length);
+                if ((int) this.checksum.getValue() != crc) {
+                    break;
+                }
+                position += FRAME_HEADER_BYTES + length;
+                if (frame <= this.lastFrame) {
+                    // already in the snapshot; left over by a crash during checkpoint
+                    continue;
+                }
+                payload.flip();
+                this.apply(payload, nodes);
+                this.lastFrame = frame;
+            }
+            this.log.truncate(position);
+            this.log.position(position);
+        }
+
+        /**
+         * Applies the records of one frame to the heap.
+         * @time complexity: O(records), amortized as the operations themselves
+         */
+        private void apply(ByteBuffer payload, LongNodeMap nodes) throws IOException {
+            while (payload.hasRemaining()) {
+                byte opcode = payload.get();
+                switch (opcode) {
+                    case INSERT: {
+                        JournaledNode node = (JournaledNode) this.heap.insert(payload.getInt());
+                        node.id = this.nextId++;
+                        nodes.put(node.id, node);
+                        break;
+                    }
+                    case DECREASE_KEY: {
+                        long id = payload.getLong();
+                        this.heap.decreaseKey(known(nodes.get(id), id), payload.getInt());
+                        break;
+                    }
+                    case DELETE: {
+                        long id = payload.getLong();
+                        this.heap.delete(known(nodes.remove(id), id));
+                        break;
+                    }
+                    case DELETE_MIN: {
+                        long id = payload.getLong();
+                        HeapNode node = known(nodes.remove(id), id);
+                        HeapNode min = this.heap.findMin();
+                        if (node == min) {
+                            this.heap.deleteMin();
+                        } else if (node.key == min.key) {
+                            // a tie broken the other way on the replayed heap
+                            this.heap.delete(node);
+                        } else {
+                            throw new IOException("log record deletes node " + id + " which is not a minimum");
+                        }
+                        break;
+                    }
+                    default:
+                        throw new IOException("unknown log record " + opcode);
+                }
+            }
+        }
+
+        /**
+         * Returns node, the node of the heap with the given id as found by a log record.
+         * @throws IOException if there is none
+         * @time complexity: O(1)
+         */
+        private static HeapNode known(HeapNode node, long id) throws IOException {
+            if (node == null) {
+                throw new IOException("log record for unknown node " + id);
+            }
+            return node;
+        }
+
+        /**
+         * Creates a node which contains the given key, with the next id, and inserts it into the heap.
+         * @return the new node
+         * @time complexity: O(1), plus a group commit every batchSize operations
+         */
+        public JournaledNode insert(int key) throws IOException {
+            JournaledNode node = (JournaledNode) this.heap.insert(key);
+            node.id = this.nextId++;
+            this.records.put(INSERT).putInt(key);
+            this.recorded();
+            return node;
+        }
+
+        /**
+         * Deletes the node containing the minimum key.
+         * @return the deleted node, or null if the heap was empty
+         * @time complexity: O(log(n)) amortized, plus a group commit every batchSize operations
+         */
+        public JournaledNode deleteMin() throws IOException {
+            JournaledNode min = (JournaledNode) this.heap.findMin();
+            if (min == null) {
+                return null;
+            }
+            this.heap.deleteMin();
+            this.records.put(DELETE_MIN).putLong(min.id);
+            this.recorded();
+            return min;
+        }
+
+        /**
+         * Decreases the key of the node x by a non-negative value delta.
+         * @time complexity: O(1) amortized, plus a group commit every batchSize operations
+         */
+        public void decreaseKey(JournaledNode x, int delta) throws IOException {
+            if (x == null || delta < 0) {
+                return;
+            }
+            this.heap.decreaseKey(x, delta);
+            this.records.put(DECREASE_KEY).putLong(x.id).putInt(delta);
+            this.recorded();
+        }
+
+        /**
+         * Deletes the node x from the heap.
+         * @time complexity: as FibonacciHeap.delete, plus a group commit every batchSize operations
+         */
+        public void delete(JournaledNode x) throws IOException {
+            this.heap.delete(x);
+            this.records.put(DELETE).putLong(x.id);
+            this.recorded();
+        }
+
+        /**
+         * Returns the node of the heap whose key is minimal, or null if the heap is empty.
+         * @time complexity: O(1)
+         */
+        public JournaledNode findMin() {
+            return (JournaledNode) this.heap.findMin();
+        }
+
+        /**
+         * Returns the number of elements in the heap.
+         * @time complexity: O(1)
+         */
+        public int size() {
+            return this.heap.size();
+        }
+
+        /**
+         * Returns a stream over every node of the heap, e.g. to index them by id again after open.
+         * @time complexity: O(1) to create.
+         */
+        public Stream<JournaledNode> nodes() {
+            return this.heap.nodes().map(JournaledNode.class::cast);
+        }
+
+        /**
+         * Counts a recorded operation and commits the batch once it is full.
+         * @time complexity: O(1), plus a group commit every batchSize operations
+         */
+        private void recorded() throws IOException {
+            if (++this.pendingRecords == this.batchSize) {
+                this.commit();
+            }
+        }
+
+        /**
+         * Writes the operations recorded since the last commit as one frame, and forces it to disk.
+         * @post: every operation done so far survives a crash
+         * @time complexity: O(records), plus one write and one force
+         */
+        public void commit() throws IOException {
+            if (this.pendingRecords == 0) {
+                return;
+            }
+            this.records.flip();
+            this.checksum.reset();
+            this.checksum.update(this.records.array(), 0, this.records.limit());
+            this.frameHeader.clear();
+            this.frameHeader.putLong(this.lastFrame + 1)
+                    .putInt(this.records.limit())
+                    .putInt((int) this.checksum.getValue())
+                    .flip();
+            ByteBuffer[] frame = {this.frameHeader, this.records};
+            while (this.records.hasRemaining()) {
+                this.log.write(frame);
+            }
+            this.log.force(false);
+            this.lastFrame++;
+            this.records.clear();
+            this.pendingRecords = 0;
+        }
+
+        /**
+         * Commits, writes the heap with its ids to the snapshot file and empties the log.
+         * The snapshot is written next to the file and moved over it, so a crash leaves the old one or the new
+         * one. If the crash comes before the log is emptied, open skips the frames already in the snapshot.
+         * The directory is forced before the log is emptied, so the rename is on disk before the frames are gone.
+         * @time complexity: O(n)
+         */
+        public void checkpoint() throws IOException {
+            this.commit();
+            Path temporary = this.snapshotFile.resolveSibling(this.snapshotFile.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                ByteBuffer header = ByteBuffer.allocate(SNAPSHOT_HEADER_BYTES);
+                header.putInt(SNAPSHOT_MAGIC).putLong(this.nextId).putLong(this.lastFrame);
+                writeFully(channel, header);
+                this.heap.writeTo(channel, node -> ((JournaledNode) node).id);
+                channel.force(false);
+            }
+            Files.move(temporary, this.snapshotFile,
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            try (FileChannel directory = FileChannel.open(this.snapshotFile.toAbsolutePath().getParent(),
+                    StandardOpenOption.READ)) {
+                directory.force(true);
+            }
+            this.log.truncate(0);
+            this.log.position(0);
+            this.log.force(false);
+        }
+
+        /**
+         * Commits and closes the log.
+         * @time complexity: as commit()
+         */
+        @Override
+        public void close() throws IOException {
+            try {
+                this.commit();
+            } finally {
+                this.log.close();
+            }
+        }
+
+        /**
+         * Closes the log without committing, as if the process died. For tests.
+         */
+        void abandon() throws IOException {
+            this.log.close();
+        }
+
+        /**
+         * Fills buffer from the current position of channel.
+         * @throws EOFException if the channel ends first
+         */
+        private static void readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new EOFException("journal snapshot is cut short");
+                }
+            }
+        }
+    }
+
+    /**
+     * IndexedFibonacciHeap
+     *
+     * A FibonacciHeap whose entries are found by a long id chosen by the caller, instead of by the HeapNode
+     * returned from insert. The heap keeps the ids in its own open-addressing map, without boxing.
+     * Not thread-safe, as FibonacciHeap.
+     */
+    public static class IndexedFibonacciHeap {
+        private final NodeHeap heap = new NodeHeap();
+        private final LongNodeMap nodes;
+
+        /**
+         * A node with the id of its entry.
+         */
+        private static final class IndexedNode extends HeapNode {
+            private long id;
+
+            private IndexedNode(int key) {
+                super(key);
+            }
+        }
+
+        /**
+         * The heap inside, which makes IndexedNodes.
+         */
+        private static final class NodeHeap extends FibonacciHeap {
+            @Override
+            protected HeapNode createNode(int key) {
+                return new IndexedNode(key);
+            }
+        }
+
+        /**
+         * Creates an empty heap with room for capacity ids before the index grows.
+         * @time complexity: O(capacity)
+         */
+        public IndexedFibonacciHeap(int capacity) {
+            this.nodes = new LongNodeMap(capacity);
+        }
+
+        /**
+         * Default constructor, creates an empty heap.
+         * @time complexity: O(1)
+         */
+        public IndexedFibonacciHeap() {
+            this(16);
+        }
+
+        /**
+         * Inserts an entry with the given id and key.
+         * @throws IllegalArgumentException if the heap already holds id
+         * @time complexity: O(1) expected
+         */
+        public void insert(long id, int key) {
+            if (this.nodes.get(id) != null) {
+                throw new IllegalArgumentException("id " + id + " is already in the heap");
+            }
+            IndexedNode node = (IndexedNode) this.heap.insert(key);
+            node.id = id;
+            this.nodes.put(id, node);
+        }
+
+        /**
+         * Returns true iff the heap holds an entry with the given id.
+         * @time complexity: O(1) expected
+         */
+        public boolean contains(long id) {
+            return this.nodes.get(id) != null;
+        }
+
+        /**
+         * Returns the key of the entry with the given id.
+         * @throws NoSuchElementException if the heap does not hold id
+         * @time complexity: O(1) expected
+         */
+        public int getKey(long id) {
+            return this.node(id).key;
+        }
+
+        /**
+         * Returns the id of the entry whose key is minimal.
+         * @throws NoSuchElementException if the heap is empty
+         * @time complexity: O(1)
+         */
+        public long findMinId() {
+            return this.min().id;
+        }
+
+        /**
+         * Returns the minimal key.
+         * @throws NoSuchElementException if the heap is empty
+         * @time complexity: O(1)
+         */
+        public int findMinKey() {
+            return this.min().key;
+        }
+
+        /**
+         * Deletes the entry with the minimal key.
+         * @return the id of the deleted entry
+         * @throws NoSuchElementException if the heap is empty
+         * @time complexity: O(log(n)) amortized
+         */
+        public long deleteMin() {
+            IndexedNode min = this.min();
+            this.heap.deleteMin();
+            this.nodes.remove(min.id);
+            return min.id;
+        }
+
+        /**
+         * Decreases the key of the entry with the given id by a non-negative value delta.
+         * @return false if the heap does not hold id
+         * @time complexity: O(1) amortized
+         */
+        public boolean decreaseKeyById(long id, int delta) {
+            HeapNode node = this.nodes.get(id);
+            if (node == null) {
+                return false;
+            }
+            this.heap.decreaseKey(node, delta);
+            return true;
+        }
+
+        /**
+         * Sets the key of the entry with the given id, which may be smaller or larger than the current one.
+         * @return false if the heap does not hold id
+         * @time complexity: as FibonacciHeap.updateKey
+         */
+        public boolean updateKeyById(long id, int newKey) {
+            HeapNode node = this.nodes.get(id);
+            if (node == null) {
+                return false;
+            }
+            this.heap.updateKey(node, newKey);
+            return true;
+        }
+
+        /**
+         * Deletes the entry with the given id.
+         * @return false if the heap does not hold id
+         * @time complexity: as FibonacciHeap.delete
+         */
+        public boolean deleteById(long id) {
+            HeapNode node = this.nodes.remove(id);
+            if (node == null) {
+                return false;
+            }
+            this.heap.delete(node);
+            return true;
+        }
+
+        /**
+         * Returns the number of entries in the heap.
+         * @time complexity: O(1)
+         */
+        public int size() {
+            return this.heap.size();
+        }
+
+        /**
+         * Returns true if and only if the heap is empty.
+         * @time complexity: O(1)
+         */
+        public boolean isEmpty() {
+            return this.heap.isEmpty();
+        }
+
+        private IndexedNode node(long id) {
+            HeapNode node = this.nodes.get(id);
+            if (node == null) {
+                throw new NoSuchElementException("no entry with id " + id);
+            }
+            return (IndexedNode) node;
+        }
+
+        private IndexedNode min() {
+            if (this.heap.isEmpty()) {
+                throw new NoSuchElementException("heap is empty");
+            }
+            return (IndexedNode) this.heap.findMin();
+        }
+    }
+
+    /**
+     * A map from long ids to nodes, with linear probing in two parallel arrays, so ids are never boxed.
+     * Removal shifts the following entries of the probe run back instead of leaving tombstones.
+     * An empty slot has a null value. The table is kept at most half full.
+     */
+    private static final class LongNodeMap {
+        private long[] ids;
+        private HeapNode[] nodes;
+        private int size;
+        private int mask;
+        // 64 - log2(table size): slot() keeps the top bits of the hash
+        private int shift;
+
+        /**
+         * Creates an empty map with room for capacity entries before growing.
+         * @time complexity: O(capacity)
+         */
+        private LongNodeMap(int capacity) {
+            int tableSize = Integer.highestOneBit(Math.max(2 * capacity - 1, 7)) << 1;
+            this.ids = new long[tableSize];
+            this.nodes = new HeapNode[tableSize];
+            this.mask = tableSize - 1;
+            this.shift = 64 - Integer.numberOfTrailingZeros(tableSize);
+        }
+
+        /**
+         * Returns the home slot of id: the top bits of id times 2^64 / phi (Fibonacci hashing).
+         * Every bit of id reaches the top bits of the product, so ids that differ only in their high bits
+         * or only in their low bits spread over the table alike.
+         * @time complexity: O(1)
+         */
+        private int slot(long id) {
+            return (int) ((id * 0x9E3779B97F4A7C15L) >>> this.shift);
+        }
+
+        /**
+         * Returns the node of id, or null if there is none.
+         * @time complexity: O(1) expected
+         */
+        private HeapNode get(long id) {
+            for (int i = this.slot(id); this.nodes[i] != null; i = (i + 1) & this.mask) {
+                if (this.ids[i] == id) {
+                    return this.nodes[i];
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Maps id to node, replacing any node it had.
+         * @pre: node != null
+         * @time complexity: O(1) expected, amortized over growing
+         */
+        private void put(long id, HeapNode node) {
+            int i = this.slot(id);
+            while (this.nodes[i] != null) {
+                if (this.ids[i] == id) {
+                    this.nodes[i] = node;
+                    return;
+                }
+                i = (i + 1) & this.mask;
+            }
+            this.ids[i] = id;
+            this.nodes[i] = node;
+            if (2 * ++this.size > this.nodes.length) {
+                this.grow();
+            }
+        }
+
+        /**
+         * Removes id from the map.
+         * @return the node id had, or null if there was none
+         * @time complexity: O(1) expected
+         */
+        private HeapNode remove(long id) {
+            int hole = this.slot(id);
+            while (this.nodes[hole] != null && this.ids[hole] != id) {
+                hole = (hole + 1) & this.mask;
+            }
+            HeapNode removed = this.nodes[hole];
+            if (removed == null) {
+                return null;
+            }
+            // move back every later entry of the run whose home slot is not between the hole and itself
+            for (int i = (hole + 1) & this.mask; this.nodes[i] != null; i = (i + 1) & this.mask) {
+                int home = this.slot(this.ids[i]);
+                if (((i - home) & this.mask) >= ((i - hole) & this.mask)) {
+                    this.ids[hole] = this.ids[i];
+                    this.nodes[hole] = this.nodes[i];
+                    hole = i;
+                }
+            }
+            this.nodes[hole] = null;
+            this.size--;
+            return removed;
+        }
+
+        /**
+         * Doubles the table and puts every entry in its new slot.
+         * @time complexity: O(size)
+         */
+        private void grow() {
+            long[] oldIds = this.ids;
+            HeapNode[] oldNodes = this.nodes;
+            this.ids = new long[2 * oldIds.length];
+            this.nodes = new HeapNode[2 * oldNodes.length];
+            this.mask = this.nodes.length - 1;
+            this.shift--;
+            for (int j = 0; j < oldNodes.length; j++) {
+                if (oldNodes[j] != null) {
+                    int i = this.slot(oldIds[j]);
+                    while (this.nodes[i] != null) {
+                        i = (i + 1) & this.mask;
+                    }
+                    this.ids[i] = oldIds[j];
+                    this.nodes[i] = oldNodes[j];
+                }
+            }
+        }
+    }
+
+    /**
+     * The key, rank, child and next of a node as the snapshots up to epoch saw them, newest first through older.
+     * Never changes once made, so readers may hold on to one while the heap changes.
+     */
+    private static final class NodeVersion {
+        private final long epoch;
+        private final int key;
+        private final int rank;
+        private final HeapNode child;
+        private final HeapNode next;
+        private final NodeVersion older;
+
+        /**
+         * @time complexity: O(1)
+         */
+        private NodeVersion(long epoch, int key, int rank, HeapNode child, HeapNode next, NodeVersion older) {
+            this.epoch = epoch;
+            this.key = key;
+            this.rank = rank;
+            this.child = child;
+            this.next = next;
+            this.older = older;
+        }
+    }
+
+    /**
+     * A read-only view of a FibonacciHeap at the time snapshot() was called, safe to read from any thread.
+     *
+     * The view shares the nodes of the heap and reads each of them through its versions: the oldest one saved
+     * at or after the epoch of the snapshot, or the live fields if the node has not changed since. The heap saves
+     * a version before it writes a node and fences the two, so a reader that sees a write also sees the version
+     * and reads again. Neither side takes a lock. A reader only counts itself in, so that the heap drops a closed
+     * snapshot once nobody reads it, without waiting for anyone.
+     */
+    public static final class Snapshot implements AutoCloseable {
+        private final long epoch;
+        private final HeapNode treeListStart;
+        private final int treeCount;
+        private final int size;
+        // calls reading the nodes right now
+        private final AtomicInteger readers = new AtomicInteger();
+        private volatile boolean closed;
+
+        /**
+         * @time complexity: O(1)
+         */
+        private Snapshot(long epoch, HeapNode treeListStart, int treeCount, int size) {
+            this.epoch = epoch;
+            this.treeListStart = treeListStart;
+            this.treeCount = treeCount;
+            this.size = size;
+        }
+
+        /**
+         * @return true once close() was called
+         * @time complexity: O(1)
+         */
+        public boolean isClosed() {
+            return this.closed;
+        }
+
+        /**
+         * Returns true once the snapshot is closed and no reader is left, so the heap may forget it.
+         * @time complexity: O(1)
+         */
+        private boolean isDone() {
+            // closed first: a reader counted in after this sees closed and leaves
+            return this.closed && this.readers.get() == 0;
+        }
+
+        /**
+         * Counts a reader in, to be undone by endRead.
+         * @time complexity: O(1)
+         */
+        private void beginRead() {
+            this.readers.incrementAndGet();
+            if (this.closed) {
+                this.readers.decrementAndGet();
+                throw new IllegalStateException("snapshot is closed");
+            }
+        }
+
+        /**
+         * @time complexity: O(1)
+         */
+        private void endRead() {
+            this.readers.decrementAndGet();
+        }
+
+        /**
+         * Returns the fields of x as this snapshot saw them.
+         * @pre: x is reachable in the snapshot and a read is in progress
+         * @time complexity: O(v) for v versions of x, expected O(1) retries
+         */
+        private NodeVersion read(HeapNode x) {
+            while (true) {
+                NodeVersion version = x.version;
+                NodeVersion saved = null;
+                for (NodeVersion older = version; older != null && older.epoch >= this.epoch; older = older.older) {
+                    saved = older;
+                }
+                if (saved != null) {
+                    return saved;
+                }
+                NodeVersion live = new NodeVersion(this.epoch, x.key, x.rank, x.child, x.next, null);
+                VarHandle.loadLoadFence();
+                if (x.version == version) {
+                    // no write since the version was read, so the fields are the ones the snapshot saw
+                    return live;
+                }
+            }
+        }
+
+        /**
+         * @return the number of keys in the snapshot
+         * @time complexity: O(1)
+         */
+        public int size() {
+            this.beginRead();
+            this.endRead();
+            return this.size;
+        }
+
+        /**
+         * @return the k smallest keys in ascending order, as FibonacciHeap.kMin
+         * @time complexity: O(k*deg(H)*log(k*deg(H))), plus O(t) for t trees
+         */
+        public int[] kMin(int k) {
+            this.beginRead();
+            try {
+                int count = Math.max(0, Math.min(k, this.size));
+                int[] keys = new int[count];
+                if (count == 0) {
+                    return keys;
+                }
+                // binary heap by key of the nodes whose parents are taken, starting with the roots
+                NodeVersion[] frontier = new NodeVersion[this.treeCount];
+                int frontierSize = 0;
+                HeapNode root = this.treeListStart;
+                for (int i = 0; i < this.treeCount; i++) {
+                    NodeVersion view = this.read(root);
+                    frontier = push(frontier, frontierSize++, view);
+                    root = view.next;
+                }
+                for (int i = 0; i < count; i++) {
+                    NodeVersion smallest = frontier[0];
+                    frontier[0] = frontier[--frontierSize];
+                    frontier[frontierSize] = null;
+                    siftDown(frontier, frontierSize);
+                    keys[i] = smallest.key;
+                    HeapNode child = smallest.child;
+                    for (int j = 0; j < smallest.rank && i < count - 1; j++) {
+                        NodeVersion view = this.read(child);
+                        frontier = push(frontier, frontierSize++, view);
+                        child = view.next;
+                    }
+                }
+                return keys;
+            } finally {
+                this.endRead();
+            }
+        }
+
+        /**
+         * Adds view at index size of the binary heap, growing the array if it is full.
+         * @time complexity: O(log(size)), amortized
+         */
+        private static NodeVersion[] push(NodeVersion[] heap, int size, NodeVersion view) {
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, Math.max(2 * size, 4));
+            }
+            int i = size;
+            while (i > 0 && heap[(i - 1) / 2].key > view.key) {
+                heap[i] = heap[(i - 1) / 2];
+                i = (i - 1) / 2;
+            }
+            heap[i] = view;
+            return heap;
+        }
+
+        /**
+         * Moves the first of the size views of the binary heap down to its place.
+         * @time complexity: O(log(size))
+         */
+        private static void siftDown(NodeVersion[] heap, int size) {
+            if (size == 0) {
+                return;
+            }
+            NodeVersion view = heap[0];
+            int i = 0;
+            while (2 * i + 1 < size) {
+                int smaller = 2 * i + 1;
+                if (smaller + 1 < size && heap[smaller + 1].key < heap[smaller].key) {
+                    smaller++;
+                }
+                if (heap[smaller].key >= view.key) {
+                    break;
+                }
+                heap[i] = heap[smaller];
+                i = smaller;
+            }
+            heap[i] = view;
+        }
+
+        /**
+         * @return the number of trees of every rank, as FibonacciHeap.countersRep
+         * @time complexity: O(t) for t trees
+         */
+        public int[] countersRep() {
+            this.beginRead();
+            try {
+                int[] ranks = new int[this.treeCount];
+                int maxRank = -1;
+                HeapNode root = this.treeListStart;
+                for (int i = 0; i < this.treeCount; i++) {
+                    NodeVersion view = this.read(root);
+                    ranks[i] = view.rank;
+                    maxRank = Math.max(maxRank, view.rank);
+                    root = view.next;
+                }
+                int[] counters = new int[maxRank + 1];
+                for (int rank : ranks) {
+                    counters[rank]++;
+                }
+                return counters;
+            } finally {
+                this.endRead();
+            }
+        }
+
+        /**
+         * @return every key in ascending order
+         * @time complexity: O(n*deg(H)*log(n))
+         */
+        public int[] sortedKeys() {
+            return this.kMin(this.size);
+        }
+
+        /**
+         * Drops the view. The heap stops saving nodes for it at its next change, once no reader is left.
+         * @time complexity: O(1)
+         */
+        @Override
+        public void close() {
+            this.closed = true;
+        }
+    }
+
+    /**
+     * Operation statistics of a heap: links, cuts, cascading cuts, consolidation passes and root list lengths.
+     * Counters are LongAdders, so heaps on many threads can update the global statistics without contending,
+     * and a monitor can read any of them while the heap is in use.
+     * Each operation records its counts once, after it is done.
+     */
+    public static final class HeapStats {
+        private final LongAdder links = new LongAdder();
+        private final LongAdder cuts = new LongAdder();
+        // cuts after the first one of the same decreaseKey
+        private final LongAdder cascadingCuts = new LongAdder();
+        private final LongAccumulator maxCutDepth = new LongAccumulator(Math::max, 0);
+        private final LongAdder consolidations = new LongAdder();
+        // sum of the root list lengths seen by consolidate
+        private final LongAdder consolidatedRoots = new LongAdder();
+        private final LongAccumulator maxRootListLength = new LongAccumulator(Math::max, 0);
+
+        /**
+         * @pre: links < rootCount
+         * @time complexity: O(1)
+         */
+        void recordConsolidation(int rootCount, int links) {
+            this.consolidations.increment();
+            this.consolidatedRoots.add(rootCount);
+            this.maxRootListLength.accumulate(rootCount);
+            if (links > 0) {
+                this.links.add(links);
+            }
+        }
+
+        /**
+         * @pre: cuts > 0
+         * @time complexity: O(1)
+         */
+        void recordCuts(int cuts) {
+            this.cuts.add(cuts);
+            if (cuts > 1) {
+                this.cascadingCuts.add(cuts - 1);
+            }
+            this.maxCutDepth.accumulate(cuts);
+        }
+
+        /**
+         * Returns the number of links made by consolidation.
+         * @time complexity: O(t) for t threads that updated the counter
+         */
+        public long getLinks() {
+            return this.links.sum();
+        }
+
+        /**
+         * Returns the number of cuts, cascading ones included.
+         * @time complexity: O(t) for t threads that updated the counter
+         */
+        public long getCuts() {
+            return this.cuts.sum();
+        }
+
+        /**
+         * Returns the number of cuts made by cascading up from an already cut node.
+         * @time complexity: O(t) for t threads that updated the counter
+         */
+        public long getCascadingCuts() {
+            return this.cascadingCuts.sum();
+        }
+
+        /**
+         * Returns the largest number of cuts made by a single decreaseKey.
+         * @time complexity: O(t) for t threads that updated the counter
+         */
+        public long getMaxCutDepth() {
+            return this.maxCutDepth.get();
+        }
+
+        /**
+         * Returns the number of consolidation passes.
+         * @time complexity: O(t) for t threads that updated the counter
+         */
+        public long getConsolidations() {
+            return this.consolidations.sum();
+        }
+
+        /**
+         * Returns the total length of the root lists that were consolidated.
+         * @time complexity: O(t) for t threads that updated the counter
+         */
+        public long getConsolidatedRoots() {
+            return this.consolidatedRoots.sum();
+        }
+
+        /**
+         * Returns the longest root list that was consolidated.
+         * @time complexity: O(t) for t threads that updated the counter
+         */
+        public long getMaxRootListLength() {
+            return this.maxRootListLength.get();
+        }
+
+        /**
+         * Returns the average length of a consolidated root list, or 0 if there was no consolidation.
+         * @time complexity: O(t) for t threads that updated the counters
+         */
+        public double getAverageRootListLength() {
+            long consolidations = this.getConsolidations();
+            return consolidations == 0 ? 0 : (double) this.getConsolidatedRoots() / consolidations;
+        }
+
+        /**
+         * Sets every counter to 0. Updates made during the reset may be lost.
+         * @time complexity: O(t) for t threads that updated the counters
+         */
+        public void reset() {
+            this.links.reset();
+            this.cuts.reset();
+            this.cascadingCuts.reset();
+            this.maxCutDepth.reset();
+            this.consolidations.reset();
+            this.consolidatedRoots.reset();
+            this.maxRootListLength.reset();
+        }
+
+        @Override
+        public String toString() {
+            return "links=" + this.getLinks()
+                    + " cuts=" + this.getCuts()
+                    + " cascadingCuts=" + this.getCascadingCuts()
+                    + " maxCutDepth=" + this.getMaxCutDepth()
+                    + " consolidations=" + this.getConsolidations()
+                    + " avgRootListLength=" + this.getAverageRootListLength()
+                    + " maxRootListLength=" + this.getMaxRootListLength();
+        }
+    }
+}
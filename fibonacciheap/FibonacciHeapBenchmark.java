@@ -0,0 +1,1075 @@
+package fibonacciheap;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * FibonacciHeapBenchmark
+ *
+ * JMH benchmarks for FibonacciHeap, in place of the single cold-run nanoTime measurements
+ * of the commented-out TheoreticalQuestions in FibonacciHeapTest, which are kept only for reference.
+ * Run main() (or the JMH runner with "-prof gc") to get allocation rates next to the timings.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class FibonacciHeapBenchmark {
+
+    /**
+     * Distinct keys in a given order, shared by the whole-scenario benchmarks.
+     */
+    @State(Scope.Benchmark)
+    public static class Keys {
+        @Param({"1000", "100000", "1000000"})
+        public int size;
+
+        @Param({"SEQUENTIAL", "REVERSED", "RANDOM"})
+        public String distribution;
+
+        int[] keys;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            keys = makeKeys(size, distribution, new Random(69420));
+        }
+    }
+
+    /**
+     * A random graph for the dijkstra-like mix.
+     * Keys are encoded as dist * size + vertex so they stay distinct and the vertex can be recovered.
+     */
+    @State(Scope.Benchmark)
+    public static class Graph {
+        static final int DEGREE = 4;
+
+        @Param({"1000", "100000", "1000000"})
+        public int size;
+
+        int[] targets;
+        int[] weights;
+        int infinity;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            Random random = new Random(69420);
+            targets = new int[size * DEGREE];
+            weights = new int[size * DEGREE];
+            for (int i = 0; i < targets.length; i++) {
+                targets[i] = random.nextInt(size);
+                weights[i] = 1 + random.nextInt(16);
+            }
+            infinity = Integer.MAX_VALUE / size - 1;
+        }
+    }
+
+    /**
+     * A heap held at a steady size, for the event-scheduler-like mix.
+     * Each operation pops the next event and schedules a new one after it.
+     */
+    @State(Scope.Thread)
+    public static class Scheduler {
+        @Param({"1000", "100000", "1000000"})
+        public int size;
+
+        // 0 turns the node pool off
+        @Param({"0", "64"})
+        public int nodePool;
+
+        FibonacciHeap heap;
+        int[] delays;
+        int cursor;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            Random random = new Random(69420);
+            heap = new FibonacciHeap();
+            heap.setNodePoolCapacity(nodePool);
+            for (int i = 0; i < size; i++) {
+                heap.insert(random.nextInt(size));
+            }
+            delays = new int[1 << 16];
+            for (int i = 0; i < delays.length; i++) {
+                delays[i] = 1 + random.nextInt(size);
+            }
+        }
+
+        int nextDelay() {
+            cursor = (cursor + 1) & (delays.length - 1);
+            return delays[cursor];
+        }
+    }
+
+    /**
+     * Pending timers with their handles, for cancel-heavy mixes. A cancelled timer is replaced by a new one.
+     */
+    @State(Scope.Thread)
+    public static class Timers {
+        @Param({"1000", "100000", "1000000"})
+        public int size;
+
+        FibonacciHeap heap;
+        FibonacciHeap.HeapNode[] timers;
+        int[] picks;
+        int cursor;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            Random random = new Random(69420);
+            heap = new FibonacciHeap();
+            timers = heap.insertAll(random.ints(size, 0, size).toArray(), true);
+            picks = random.ints(1 << 16, 0, size).toArray();
+        }
+
+        int nextPick() {
+            cursor = (cursor + 1) & (picks.length - 1);
+            return picks[cursor];
+        }
+    }
+
+    /**
+     * A steady-size heap fed in bursts: one invocation out of BURST + 1 inserts BURST keys,
+     * the others each pop one key. Used with SampleTime, so the tail percentiles show the pops
+     * that pay for consolidating a burst.
+     */
+    @State(Scope.Thread)
+    public static class Bursts {
+        static final int BURST = 256;
+
+        @Param({"100000"})
+        public int size;
+
+        @Param({"EAGER", "THRESHOLD", "INCREMENTAL"})
+        public FibonacciHeap.ConsolidationPolicy policy;
+
+        FibonacciHeap heap;
+        int[] keys;
+        int cursor;
+        int step;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            Random random = new Random(69420);
+            heap = new FibonacciHeap();
+            heap.setConsolidationPolicy(policy);
+            heap.insertAll(random.ints(size, 0, size).toArray(), true);
+            keys = random.ints(1 << 16, 0, size).toArray();
+        }
+    }
+
+    /**
+     * A root list of size singletons, rebuilt before every call, and a pool of the given parallelism.
+     * Parallelism 1 takes the sequential consolidate, the baseline of the scaling curve.
+     */
+    @State(Scope.Benchmark)
+    public static class Roots {
+        @Param({"1048576", "4194304"})
+        public int size;
+
+        @Param({"1", "2", "4", "8"})
+        public int parallelism;
+
+        int[] keys;
+        ForkJoinPool pool;
+        FibonacciHeap heap;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            keys = makeKeys(size, "RANDOM", new Random(69420));
+            pool = new ForkJoinPool(parallelism);
+        }
+
+        @Setup(Level.Invocation)
+        public void fill() {
+            heap = new FibonacciHeap();
+            heap.insertAll(keys);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * A single binomial tree of 2^logSize nodes, the shape kMin expects.
+     */
+    @State(Scope.Benchmark)
+    public static class SingleTree {
+        @Param({"10", "16", "20"})
+        public int logSize;
+
+        @Param({"10", "100", "1000"})
+        public int k;
+
+        FibonacciHeap heap;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            heap = new FibonacciHeap();
+            int[] keys = makeKeys((1 << logSize) + 1, "RANDOM", new Random(69420));
+            for (int key : keys) {
+                heap.insert(key);
+            }
+            heap.deleteMin();
+        }
+    }
+
+    /**
+     * A heap right after a burst of inserts: one tree per key, nothing consolidated yet.
+     * Rebuilt before every invocation since the measured operation consumes it.
+     */
+    @State(Scope.Thread)
+    public static class InsertBurst {
+        @Param({"1000", "100000", "1000000"})
+        public int size;
+
+        int[] keys;
+        FibonacciHeap heap;
+
+        @Setup(Level.Trial)
+        public void makeKeys() {
+            keys = FibonacciHeapBenchmark.makeKeys(size, "RANDOM", new Random(69420));
+        }
+
+        @Setup(Level.Invocation)
+        public void setUp() {
+            heap = new FibonacciHeap();
+            for (int key : keys) {
+                heap.insert(key);
+            }
+        }
+    }
+
+    /**
+     * A heap with one root per key, or the same keys linked into binomial trees.
+     * The benchmarks on it do not change it, so it is built once per trial.
+     */
+    @State(Scope.Benchmark)
+    public static class Forest {
+        @Param({"100000", "1000000"})
+        public int size;
+
+        @Param({"100"})
+        public int k;
+
+        @Param({"false", "true"})
+        public boolean consolidated;
+
+        FibonacciHeap heap;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            heap = new FibonacciHeap();
+            heap.insertAll(makeKeys(size, "RANDOM", new Random(69420)), consolidated);
+        }
+    }
+
+    /**
+     * A heap after deleteMin and decreaseKey calls, with trees of several ranks and marked nodes, to copy.
+     */
+    @State(Scope.Benchmark)
+    public static class Copies {
+        @Param({"1000", "100000", "1000000"})
+        public int size;
+
+        FibonacciHeap heap;
+        FibonacciHeap.HeapNode[] nodes;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            Random random = new Random(69420);
+            heap = new FibonacciHeap();
+            nodes = heap.insertAll(makeKeys(size, "RANDOM", random));
+            heap.deleteMin();
+            for (int i = 0; i < size / 10; i++) {
+                FibonacciHeap.HeapNode node = nodes[random.nextInt(size)];
+                if (node.getGeneration() == 0) {
+                    heap.decreaseKey(node, random.nextInt(size));
+                }
+            }
+        }
+    }
+
+    /**
+     * A heap with marked nodes and trees of several ranks, written to a temporary file.
+     */
+    @State(Scope.Benchmark)
+    public static class Persisted {
+        @Param({"100000", "1000000", "10000000"})
+        public int size;
+
+        FibonacciHeap heap;
+        int[] keys;
+        Path file;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            Random random = new Random(69420);
+            keys = makeKeys(size, "RANDOM", random);
+            heap = new FibonacciHeap();
+            FibonacciHeap.HeapNode[] nodes = heap.insertAll(keys);
+            heap.deleteMin();
+            for (int i = 0; i < size / 10; i++) {
+                FibonacciHeap.HeapNode node = nodes[random.nextInt(size)];
+                if (node.getGeneration() == 0) {
+                    heap.decreaseKey(node, random.nextInt(size));
+                }
+            }
+            file = Files.createTempFile("heap", ".bin");
+            heap.writeTo(file);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * A journaled heap in a temporary directory, committing every batchSize operations.
+     * Batch size 1 forces the log to disk on every operation.
+     */
+    @State(Scope.Thread)
+    public static class Journal {
+        static final int SIZE = 100000;
+
+        @Param({"1", "64", "1024"})
+        public int batchSize;
+
+        Path directory;
+        FibonacciHeap.JournaledFibonacciHeap heap;
+        FibonacciHeap plain;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("journal");
+            heap = FibonacciHeap.JournaledFibonacciHeap.open(
+                    directory.resolve("heap.snapshot"), directory.resolve("heap.log"), batchSize);
+            plain = new FibonacciHeap();
+        }
+
+        @TearDown(Level.Iteration)
+        public void checkpoint() throws IOException {
+            // keeps the log from growing over the whole run
+            heap.checkpoint();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            heap.close();
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.toList()) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(directory);
+        }
+    }
+
+    /**
+     * The same entries in an IndexedFibonacciHeap, and in a FibonacciHeap beside a HashMap from boxed ids
+     * to nodes, the pattern the indexed heap replaces. Ids are spread over the whole long range.
+     */
+    @State(Scope.Thread)
+    public static class Ids {
+        @Param({"1000", "100000", "1000000"})
+        public int size;
+
+        long[] ids;
+        int cursor;
+        FibonacciHeap.IndexedFibonacciHeap indexed;
+        FibonacciHeap heap;
+        Map<Long, FibonacciHeap.HeapNode> handles;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            Random random = new Random(69420);
+            ids = random.longs(size).distinct().toArray();
+            indexed = new FibonacciHeap.IndexedFibonacciHeap(ids.length);
+            heap = new FibonacciHeap();
+            handles = new HashMap<>(2 * ids.length);
+            for (long id : ids) {
+                int key = random.nextInt(size);
+                indexed.insert(id, key);
+                handles.put(id, heap.insert(key));
+            }
+        }
+
+        long nextId() {
+            cursor = (cursor + 1) % ids.length;
+            return ids[cursor];
+        }
+    }
+
+    /**
+     * A consolidated heap holding enough keys for a whole measurement batch of deleteMin calls.
+     */
+    @State(Scope.Thread)
+    public static class DeleteMinBatch {
+        static final int BATCH = 1 << 16;
+
+        @Param({"1000", "100000", "1000000"})
+        public int size;
+
+        FibonacciHeap heap;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            heap = new FibonacciHeap();
+            for (int key : makeKeys(size + BATCH + 1, "RANDOM", new Random(69420))) {
+                heap.insert(key);
+            }
+            heap.deleteMin();
+        }
+    }
+
+    /**
+     * A heap kept at a steady size: every invocation pops k keys and inserts k larger ones.
+     */
+    @State(Scope.Thread)
+    public static class BatchDrain {
+        @Param({"100000"})
+        public int size;
+
+        @Param({"16", "256"})
+        public int k;
+
+        FibonacciHeap heap;
+        int[] out;
+        int nextKey;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            heap = new FibonacciHeap();
+            heap.insertAll(makeKeys(size, "RANDOM", new Random(69420)));
+            heap.deleteMin();
+            out = new int[k];
+            nextKey = size;
+        }
+
+        void refill() {
+            for (int i = 0; i < k; i++) {
+                heap.insert(nextKey++);
+            }
+        }
+    }
+
+    /**
+     * Queues shared by the producer and consumer threads of one benchmark group.
+     */
+    @State(Scope.Group)
+    public static class SharedQueues {
+        FibonacciHeap.ConcurrentFibonacciHeap heap;
+        PriorityBlockingQueue<Integer> queue;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            heap = new FibonacciHeap.ConcurrentFibonacciHeap();
+            queue = new PriorityBlockingQueue<>();
+        }
+    }
+
+    /**
+     * Builds size distinct keys in the requested order.
+     * @time complexity: O(size)
+     */
+    static int[] makeKeys(int size, String distribution, Random random) {
+        int[] keys = new int[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = distribution.equals("REVERSED") ? size - i : i;
+        }
+        if (distribution.equals("RANDOM")) {
+            for (int i = size - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int mem = keys[i];
+                keys[i] = keys[j];
+                keys[j] = mem;
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Inserts all keys into a new heap.
+     */
+    @Benchmark
+    public FibonacciHeap insert(Keys state) {
+        FibonacciHeap heap = new FibonacciHeap();
+        for (int key : state.keys) {
+            heap.insert(key);
+        }
+        return heap;
+    }
+
+    @Benchmark
+    public FibonacciHeap insertAll(Keys state) {
+        FibonacciHeap heap = new FibonacciHeap();
+        heap.insertAll(state.keys);
+        return heap;
+    }
+
+    /**
+     * Bulk load already linked into binomial trees, then the first deleteMin.
+     */
+    @Benchmark
+    public FibonacciHeap insertAllConsolidatedAndDeleteMin(Keys state) {
+        FibonacciHeap heap = new FibonacciHeap();
+        heap.insertAll(state.keys, true);
+        heap.deleteMin();
+        return heap;
+    }
+
+    /**
+     * Bulk drain: inserts all keys and then calls deleteMin until the heap is empty.
+     * The first deleteMin consolidates the whole root list.
+     */
+    @Benchmark
+    public int insertAndDrain(Keys state) {
+        FibonacciHeap heap = new FibonacciHeap();
+        for (int key : state.keys) {
+            heap.insert(key);
+        }
+        int sum = 0;
+        while (!heap.isEmpty()) {
+            sum += heap.findMin().key;
+            heap.deleteMin();
+        }
+        return sum;
+    }
+
+    /**
+     * insertAndDrain on GenericFibonacciHeap with boxed Integer keys and a payload, to compare with the int heap.
+     */
+    @Benchmark
+    public int genericInsertAndDrain(Keys state) {
+        FibonacciHeap.GenericFibonacciHeap<Integer, Object> heap = new FibonacciHeap.GenericFibonacciHeap<>();
+        for (int key : state.keys) {
+            heap.insert(key, state);
+        }
+        int sum = 0;
+        while (!heap.isEmpty()) {
+            sum += heap.deleteMin().getKey();
+        }
+        return sum;
+    }
+
+    /**
+     * insertAndDrain on LongFibonacciHeap, with the keys shifted past the int range.
+     */
+    @Benchmark
+    public long longInsertAndDrain(Keys state) {
+        FibonacciHeap.LongFibonacciHeap heap = new FibonacciHeap.LongFibonacciHeap();
+        for (int key : state.keys) {
+            heap.insert(key + (1L << 40));
+        }
+        long sum = 0;
+        while (!heap.isEmpty()) {
+            sum += heap.findMin().getKey();
+            heap.deleteMin();
+        }
+        return sum;
+    }
+
+    /**
+     * longInsertAndDrain on GenericFibonacciHeap with boxed Long keys, the boxing LongFibonacciHeap avoids.
+     */
+    @Benchmark
+    public long boxedLongInsertAndDrain(Keys state) {
+        FibonacciHeap.GenericFibonacciHeap<Long, Object> heap = new FibonacciHeap.GenericFibonacciHeap<>();
+        for (int key : state.keys) {
+            heap.insert(key + (1L << 40), state);
+        }
+        long sum = 0;
+        while (!heap.isEmpty()) {
+            sum += heap.deleteMin().getKey();
+        }
+        return sum;
+    }
+
+    /**
+     * insertAndDrain on DoubleFibonacciHeap, with fractional keys.
+     */
+    @Benchmark
+    public double doubleInsertAndDrain(Keys state) {
+        FibonacciHeap.DoubleFibonacciHeap heap = new FibonacciHeap.DoubleFibonacciHeap();
+        for (int key : state.keys) {
+            heap.insert(key * 0.5);
+        }
+        double sum = 0;
+        while (!heap.isEmpty()) {
+            sum += heap.findMin().getKey();
+            heap.deleteMin();
+        }
+        return sum;
+    }
+
+    /**
+     * decreaseKey on LongFibonacciHeap: consolidates once, then decreases every other key below the minimum.
+     */
+    @Benchmark
+    public FibonacciHeap.LongFibonacciHeap longDecreaseKey(Keys state) {
+        FibonacciHeap.LongFibonacciHeap heap = new FibonacciHeap.LongFibonacciHeap();
+        int[] keys = state.keys;
+        FibonacciHeap.LongFibonacciHeap.Node[] nodes = new FibonacciHeap.LongFibonacciHeap.Node[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            nodes[i] = heap.insert(keys[i] + (1L << 40));
+        }
+        heap.insert(-1);
+        heap.deleteMin();
+        long newKey = -2;
+        for (int i = 0; i < nodes.length; i += 2) {
+            heap.decreaseKey(nodes[i], nodes[i].getKey() - newKey);
+            newKey--;
+        }
+        return heap;
+    }
+
+    /**
+     * longDecreaseKey on DoubleFibonacciHeap.
+     */
+    @Benchmark
+    public FibonacciHeap.DoubleFibonacciHeap doubleDecreaseKey(Keys state) {
+        FibonacciHeap.DoubleFibonacciHeap heap = new FibonacciHeap.DoubleFibonacciHeap();
+        int[] keys = state.keys;
+        FibonacciHeap.DoubleFibonacciHeap.Node[] nodes = new FibonacciHeap.DoubleFibonacciHeap.Node[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            nodes[i] = heap.insert(keys[i] * 0.5);
+        }
+        heap.insert(-1);
+        heap.deleteMin();
+        double newKey = -2;
+        for (int i = 0; i < nodes.length; i += 2) {
+            heap.decreaseKey(nodes[i], nodes[i].getKey() - newKey);
+            newKey -= 0.5;
+        }
+        return heap;
+    }
+
+    /**
+     * The first deleteMin after an insert burst, which consolidates the whole root list.
+     * The new minimum is picked while rebuilding the list from the rank buckets.
+     */
+    @Benchmark
+    public FibonacciHeap.HeapNode deleteMinAfterBurst(InsertBurst state) {
+        state.heap.deleteMin();
+        return state.heap.findMin();
+    }
+
+    /**
+     * deleteMin alone, one batch per iteration. With "-prof gc", gc.alloc.rate.norm is the bytes allocated
+     * per deleteMin, which should be 0: consolidate reuses the heap's buckets and walks lists without iterators.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 5, batchSize = DeleteMinBatch.BATCH)
+    @Measurement(iterations = 10, batchSize = DeleteMinBatch.BATCH)
+    public void deleteMin(DeleteMinBatch state) {
+        state.heap.deleteMin();
+    }
+
+    /**
+     * Pops k keys with k deleteMin calls, each of which consolidates.
+     */
+    @Benchmark
+    public int deleteMinK(BatchDrain state) {
+        FibonacciHeap heap = state.heap;
+        int sum = 0;
+        for (int i = 0; i < state.k; i++) {
+            sum += heap.findMin().key;
+            heap.deleteMin();
+        }
+        state.refill();
+        return sum;
+    }
+
+    /**
+     * Pops the same k keys with one drainTo, which consolidates once.
+     */
+    @Benchmark
+    public int drainToK(BatchDrain state) {
+        int count = state.heap.drainTo(state.out, state.k);
+        state.refill();
+        return count;
+    }
+
+    /**
+     * The root list walk deleteMin used to do before consolidating, for comparison with deleteMinAfterBurst.
+     */
+    @Benchmark
+    public FibonacciHeap.HeapNode findNewMinAfterBurst(InsertBurst state) {
+        return state.heap.findNewMin();
+    }
+
+    /**
+     * Inserts all keys, consolidates once, then decreases every other key below the current minimum.
+     * Exercises cutNode and cascading cuts.
+     */
+    @Benchmark
+    public FibonacciHeap decreaseKey(Keys state) {
+        FibonacciHeap heap = new FibonacciHeap();
+        int[] keys = state.keys;
+        FibonacciHeap.HeapNode[] nodes = new FibonacciHeap.HeapNode[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            nodes[i] = heap.insert(keys[i] + keys.length);
+        }
+        heap.insert(-1);
+        heap.deleteMin();
+        int newKey = -2;
+        for (int i = 0; i < nodes.length; i += 2) {
+            heap.decreaseKey(nodes[i], nodes[i].key - newKey);
+            newKey--;
+        }
+        return heap;
+    }
+
+    /**
+     * Melds the keys in as many small heaps as possible, then consolidates them with one deleteMin.
+     */
+    @Benchmark
+    public FibonacciHeap meld(Keys state) {
+        FibonacciHeap heap = new FibonacciHeap();
+        int[] keys = state.keys;
+        for (int i = 0; i + 1 < keys.length; i += 2) {
+            FibonacciHeap small = new FibonacciHeap();
+            small.insert(keys[i]);
+            small.insert(keys[i + 1]);
+            heap.meld(small);
+        }
+        heap.deleteMin();
+        return heap;
+    }
+
+    /**
+     * kMin on a single binomial tree. Does not change the heap.
+     */
+    @Benchmark
+    public int[] kMin(SingleTree state) {
+        return FibonacciHeap.kMin(state.heap, state.k);
+    }
+
+    /**
+     * An independent copy of the heap, keeping its shape.
+     */
+    @Benchmark
+    public FibonacciHeap deepCopy(Copies state) {
+        return state.heap.deepCopy();
+    }
+
+    /**
+     * The same copy, also mapping every node to its copy.
+     */
+    @Benchmark
+    public Map<FibonacciHeap.HeapNode, FibonacciHeap.HeapNode> deepCopyWithMapping(Copies state) {
+        Map<FibonacciHeap.HeapNode, FibonacciHeap.HeapNode> mapping = new IdentityHashMap<>(2 * state.size);
+        state.heap.deepCopy(mapping);
+        return mapping;
+    }
+
+    /**
+     * The same copy into the arrays of an ArrayFibonacciHeap.
+     */
+    @Benchmark
+    public FibonacciHeap.ArrayFibonacciHeap arrayCopyOf(Copies state) {
+        return FibonacciHeap.ArrayFibonacciHeap.copyOf(state.heap, null);
+    }
+
+    /**
+     * The baseline: inserting every key into a new heap, which loses the shape and leaves one tree per key.
+     */
+    @Benchmark
+    public FibonacciHeap rebuildByInsert(Copies state) {
+        FibonacciHeap copy = new FibonacciHeap();
+        state.heap.keys().forEach(copy::insert);
+        return copy;
+    }
+
+    /**
+     * Writes the heap to a file in the binary preorder format.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void writeHeap(Persisted state) throws IOException {
+        state.heap.writeTo(state.file);
+    }
+
+    /**
+     * Restores the heap with its trees from the file, through memory-mapped windows.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public FibonacciHeap readHeap(Persisted state) throws IOException {
+        return FibonacciHeap.readFrom(state.file);
+    }
+
+    /**
+     * The baseline: inserting every key again and consolidating, as a restart without the file does.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public FibonacciHeap restoreByInsert(Persisted state) {
+        FibonacciHeap heap = new FibonacciHeap();
+        for (int key : state.keys) {
+            heap.insert(key);
+        }
+        heap.deleteMin();
+        return heap;
+    }
+
+    /**
+     * Inserts into the journaled heap, deleting the minimum once it holds Journal.SIZE keys.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void journaledInsert(Journal state) throws IOException {
+        state.heap.insert(ThreadLocalRandom.current().nextInt());
+        if (state.heap.size() > Journal.SIZE) {
+            state.heap.deleteMin();
+        }
+    }
+
+    /**
+     * The same operations on a FibonacciHeap without a journal.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void plainInsert(Journal state) {
+        state.plain.insert(ThreadLocalRandom.current().nextInt());
+        if (state.plain.size() > Journal.SIZE) {
+            state.plain.deleteMin();
+        }
+    }
+
+    /**
+     * Sets the key of an entry found by its id in the heap's own index.
+     */
+    @Benchmark
+    public boolean updateKeyById(Ids state) {
+        return state.indexed.updateKeyById(state.nextId(), ThreadLocalRandom.current().nextInt(state.size));
+    }
+
+    /**
+     * The same, finding the node in a HashMap kept beside the heap.
+     */
+    @Benchmark
+    public void updateKeyThroughHashMap(Ids state) {
+        state.heap.updateKey(state.handles.get(state.nextId()), ThreadLocalRandom.current().nextInt(state.size));
+    }
+
+    /**
+     * kMin on a root list of size trees, or on binomial trees. Only the k smallest roots enter the frontier.
+     */
+    @Benchmark
+    public int[] kMinForest(Forest state) {
+        return FibonacciHeap.kMin(state.heap, state.k);
+    }
+
+    /**
+     * The first k keys of the sorted stream over the same heap. The frontier starts from every root.
+     */
+    @Benchmark
+    public int[] sortedKeysForest(Forest state) {
+        return state.heap.sortedKeys().limit(state.k).toArray();
+    }
+
+    /**
+     * Counts the keys in the lower half of the key range with a parallel stream over every node.
+     */
+    @Benchmark
+    public long countKeysInRangeParallel(Forest state) {
+        int bound = state.size / 2;
+        return state.heap.keys().parallel().filter(key -> key < bound).count();
+    }
+
+    /**
+     * Dijkstra-like mix: every vertex starts at infinity, each deleteMin relaxes DEGREE outgoing edges
+     * with decreaseKey.
+     */
+    @Benchmark
+    public long dijkstra(Graph graph) {
+        int n = graph.size;
+        FibonacciHeap heap = new FibonacciHeap();
+        FibonacciHeap.HeapNode[] nodes = new FibonacciHeap.HeapNode[n];
+        boolean[] done = new boolean[n];
+        nodes[0] = heap.insert(0);
+        for (int v = 1; v < n; v++) {
+            nodes[v] = heap.insert(graph.infinity * n + v);
+        }
+        long total = 0;
+        while (!heap.isEmpty()) {
+            int key = heap.findMin().key;
+            int u = key % n;
+            int dist = key / n;
+            heap.deleteMin();
+            done[u] = true;
+            total += dist;
+            if (dist == graph.infinity) {
+                continue; // unreachable, nothing to relax
+            }
+            for (int e = u * Graph.DEGREE; e < (u + 1) * Graph.DEGREE; e++) {
+                int v = graph.targets[e];
+                int candidate = (dist + graph.weights[e]) * n + v;
+                if (!done[v] && candidate < nodes[v].key) {
+                    heap.decreaseKey(nodes[v], nodes[v].key - candidate);
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Event-scheduler-like mix: one deleteMin and one insert per operation, at a steady heap size.
+     * With the node pool on, insert reuses the node deleteMin removed, and "-prof gc" should report
+     * a gc.alloc.rate.norm of 0 bytes per operation.
+     */
+    @Benchmark
+    @BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void scheduler(Scheduler state, Blackhole blackhole) {
+        FibonacciHeap heap = state.heap;
+        int now = heap.findMin().key;
+        heap.deleteMin();
+        blackhole.consume(heap.insert(now + state.nextDelay()));
+    }
+
+    /**
+     * Timer-wheel-like mix: cancels a pending timer with delete and schedules a new one.
+     * delete consolidates only when the timer is the minimum, so this does not grow with the number of roots.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void cancel(Timers state) {
+        int slot = state.nextPick();
+        FibonacciHeap.HeapNode timer = state.timers[slot];
+        state.heap.delete(timer);
+        state.timers[slot] = state.heap.insert(timer.key + state.size);
+    }
+
+    /**
+     * Postpones a pending timer in place with updateKey.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void reschedule(Timers state) {
+        FibonacciHeap.HeapNode timer = state.timers[state.nextPick()];
+        state.heap.updateKey(timer, timer.key + state.size);
+    }
+
+    /**
+     * Postpones a pending timer with delete and insert, for comparison with reschedule.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void rescheduleByDeleteAndInsert(Timers state) {
+        int slot = state.nextPick();
+        FibonacciHeap.HeapNode timer = state.timers[slot];
+        state.heap.delete(timer);
+        state.timers[slot] = state.heap.insert(timer.key + state.size);
+    }
+
+    /**
+     * Bursty inserts and single pops under each consolidation policy. Compare the p99, p99.9 and max columns:
+     * SampleTime keeps a histogram of the sampled invocation times, so no extra histogram library is needed.
+     * INCREMENTAL moves the consolidation work of a burst into the inserts of the burst.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void burstyPops(Bursts state) {
+        FibonacciHeap heap = state.heap;
+        if (state.step++ % (Bursts.BURST + 1) == 0) {
+            int base = heap.findMin().key;
+            for (int i = 0; i < Bursts.BURST; i++) {
+                state.cursor = (state.cursor + 1) & (state.keys.length - 1);
+                heap.insert(base + state.keys[state.cursor]);
+            }
+        } else {
+            heap.deleteMin();
+        }
+    }
+
+    /**
+     * Consolidates a root list of singletons on 1 to 8 workers.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int consolidateParallel(Roots state) {
+        state.heap.consolidate(state.pool);
+        return state.heap.treeCount;
+    }
+
+    /**
+     * Three producers insert into a ConcurrentFibonacciHeap while one consumer calls deleteMin.
+     */
+    @Benchmark
+    @Group("concurrentHeap")
+    @GroupThreads(3)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public FibonacciHeap.HeapNode concurrentHeapInsert(SharedQueues queues) {
+        return queues.heap.insert(ThreadLocalRandom.current().nextInt());
+    }
+
+    @Benchmark
+    @Group("concurrentHeap")
+    @GroupThreads(1)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public FibonacciHeap.HeapNode concurrentHeapDeleteMin(SharedQueues queues) {
+        return queues.heap.deleteMin();
+    }
+
+    /**
+     * The same mix as concurrentHeap on a PriorityBlockingQueue, for comparison.
+     */
+    @Benchmark
+    @Group("priorityBlockingQueue")
+    @GroupThreads(3)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public boolean priorityBlockingQueueOffer(SharedQueues queues) {
+        return queues.queue.offer(ThreadLocalRandom.current().nextInt());
+    }
+
+    @Benchmark
+    @Group("priorityBlockingQueue")
+    @GroupThreads(1)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Integer priorityBlockingQueuePoll(SharedQueues queues) {
+        return queues.queue.poll();
+    }
+
+    /**
+     * Runs every benchmark in this class with the gc profiler attached.
+     * Pass a regular expression to run a subset, e.g. "FibonacciHeapBenchmark.scheduler".
+     */
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(args.length > 0 ? args[0] : FibonacciHeapBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
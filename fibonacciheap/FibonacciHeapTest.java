@@ -0,0 +1,2421 @@
+package fibonacciheap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.AfterEach;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+
+
+class FibonacciHeapTest {
+    Random random = new Random(69420);
+    FibonacciHeap heap;
+    static final int[] PRIMES = new int[] {2,3,5,7,11,13,17,19,23,29,31,37};
+    void buildHeap(Integer l) {
+            buildHeap(l, l+1);
+        }
+    void buildHeap(Integer l, int consolidateEvery) {
+        l = (l==null || l < 1)? 10 : l;
+        FibonacciHeap.HeapNode min = new FibonacciHeap.HeapNode(0);
+        min.next = min;
+        min.prev = min;
+        heap = new FibonacciHeap(min,min,1,1,0);
+        for (int i = 1; i < l; i++) {
+            var node = new FibonacciHeap.HeapNode(i);
+            node.next = node;
+            node.prev = node;
+            var heap2 = new FibonacciHeap(node, node, 1,1,0);
+            heap2.meld(heap);
+            heap = heap2;
+            if (i % consolidateEvery == 0){
+                heap.consolidate();
+            }
+        }
+    }
+
+    /**
+     * @return an array of all numbers in the heap in order of insertion
+     */
+    int[] randomInserts(int i, Set<Integer> inHeap){
+        ArrayList<Integer> lst = new ArrayList<>();
+        while(lst.size() < i){
+            int randint = random.nextInt(-100*i,100*i);
+            if (!inHeap.contains(randint)){
+                lst.add(randint);
+                inHeap.add(randint);
+            }
+        }
+        int[] arr = new int[lst.size()];
+        for (int j = 0; j < lst.size(); j++) {
+            heap.insert(lst.get(j));
+            arr[j]=lst.get(j);
+            if (random.nextInt() % 2 == 0){
+                heap.consolidate();
+            }
+        }
+        return arr;
+    }
+
+    int[] randomInserts(int i){
+        Set<Integer> inHeap = new HashSet<>();
+        return randomInserts(i, inHeap);
+    }
+
+
+    /*void printHeap(FibonacciHeap h){
+        StringBuilder[] output = new StringBuilder[h.treeCount];
+        int i = 0;
+        for (FibonacciHeap.HeapNode tree: h.treeListStart) {
+            output[i] = new StringBuilder("(%d)\n  |\n".formatted(tree.key));
+            output[i].append(printTree(tree.child));
+        }
+        System.out.println(Arrays.toString(output));
+    }
+    String printTree(FibonacciHeap.HeapNode node){
+        if (node == null){
+            return "";
+        }
+        StringBuilder output = new StringBuilder();
+        for (FibonacciHeap.HeapNode bro : node) {
+            output.append("(%d)->".formatted(bro.key));
+        }
+        int len = output.length();
+        output.replace(len-2, len-1, "\n  |\n");
+        output.append(printTree(node.child));
+        return output.toString();
+    }*/
+
+    @Nested
+    class deleteMin {
+
+        @BeforeEach
+        void setUp(){
+            buildHeap(10);
+        }
+        @Test
+        void testConsolidateFromLinkedList(){
+            heap.consolidate();
+            var min = heap.min;
+            assertEquals(min.key , 0);
+            assertEquals(min.child.key, 1);
+            assertEquals(min.rank, 1);
+            var start = min.prev;
+            assertEquals(start.key, 2);
+            assertEquals(start.rank, 3);
+            assertEquals(start.child.key, 6);
+            assertEquals(start.child.next.key, 4);
+            testParenthoodAfterConsolidation();
+            /* (0) ------>  (2)
+             *  |          /
+             * (1)       (6) -> (4) -> (3)
+             *           /
+             *         (8) -> (7) -> (5)
+             *         /
+             *       (9)
+             */
+        }
+        void testParenthoodAfterConsolidation(){
+            var parent = heap.treeListStart;
+            while (parent.child != null){
+                var child = parent.child;
+                assertEquals(parent, child.parent, "Child failed");
+                assertTrue(parent.key < child.key, "Child was smaller");
+                var bro = child.next;
+                while (bro != child){
+                    assertEquals(parent, bro.parent, "Bro failed");
+                    assertTrue(parent.key < bro.key, "Child was smaller");
+                    bro = bro.next;
+                }
+                parent = child;
+            }
+        }
+        @Test
+        void testConsolidateAtDifferentLengths(){
+            for (int i = 11; i < 10000; i++) {
+                buildHeap(i);
+                try {
+                    testParenthoodAfterConsolidation();
+                } catch (Exception e){
+                    System.err.printf("Error at length  %d:%n", i);
+                    System.err.println("    " + e.getMessage());
+                }
+            }
+        }
+        @Test
+        void testDeletionFromLinkedList(){
+            StringBuilder errors = new StringBuilder();
+            for (int i = 10; i < 1000; i++) {
+                buildHeap(i);
+                for (int j = 1; j < i; j++) {
+                    try {
+                        heap.deleteMin();
+                        assertEquals(j, heap.min.key);
+                    } catch (Exception e){
+                        errors.append("Error at length ").append(i).append("\n");
+                        errors.append("    ").append(e.getMessage()).append("\n");
+                    }
+                }
+            }
+            assert errors.toString().equals("") : errors;
+        }
+        @Test
+        void testDeletionFromTrees(){
+            StringBuilder errors = new StringBuilder();
+            for (var j : PRIMES) {
+                for (int i = 10; i < 100; i++) {
+                    buildHeap(i, j);
+                    try {
+                        heap.deleteMin();
+                        assertEquals(1, heap.min.key);
+                    } catch (Exception e) {
+                        errors.append("Error at length ").append(i)
+                                .append(" consolidate at ").append(j).append("\n");
+                        errors.append("    ").append(e.getMessage()).append("\n");
+                    }
+                }
+            }
+            assert errors.toString().equals("") : errors;
+        }
+        @Test
+        void minIsFoundByConsolidation(){
+            heap = new FibonacciHeap();
+            randomInserts(500);
+            while (!heap.isEmpty()) {
+                heap.deleteMin();
+                assertSame(heap.findNewMin(), heap.min);
+            }
+            assertNull(heap.min);
+            assertNull(heap.treeListStart);
+        }
+        @Test
+        void binomialTree8(){
+            buildHeap(8);
+            heap.consolidate();
+            heap.deleteMin();
+            assertEquals(heap.min.key, 1);
+            assertEquals(heap.treeCount, 3);
+        }
+        @Test
+        void binomialTree2(){
+            buildHeap(2);
+            assertEquals(heap.treeCount, 2);
+            heap.consolidate();
+            heap.deleteMin();
+            assertEquals(heap.min.key, 1);
+            assertEquals(heap.treeCount, 1);
+        }
+    }
+
+    @Nested
+    class kMin {
+        void buildBinomial(int k){
+            buildHeap((int) Math.pow(2,k));
+            heap.consolidate();
+        }
+
+        @Test
+        void testKMin(){
+            for (int i = 0; i < 8; i++) {
+                buildBinomial(i);
+                int[] ret;
+                int[] expected;
+                for (int j = 0; j < Math.pow(2,i); j++) {
+                    try {
+                        ret = FibonacciHeap.kMin(heap, j);
+                    } catch (Exception e){
+                        System.err.printf("at iteration i = %d, j = %d%n", i,j);
+                        throw e;
+                    }
+                    expected = IntStream.range(0,j).toArray();
+                    assertArrayEquals(expected, ret,
+                            "i = %d, j = %d\n ret = %s\n".formatted(i,j,Arrays.toString(ret))
+                    );
+                }
+            }
+        }
+
+        @Test
+        void anyShapeWithoutChangingTheHeap(){
+            Random random = new Random(12);
+            for (int round = 0; round < 100; round++) {
+                var heap = new FibonacciHeap();
+                List<FibonacciHeap.HeapNode> nodes = new ArrayList<>();
+                for (int i = random.nextInt(2000); i >= 0; i--) {
+                    nodes.add(heap.insert(random.nextInt(100_000)));
+                }
+                if (random.nextBoolean() && heap.size() > 1) {
+                    // consolidate, then cut it into many trees
+                    nodes.remove(heap.findMin());
+                    heap.deleteMin();
+                    for (int i = random.nextInt(nodes.size()); i > 0; i--) {
+                        heap.decreaseKey(nodes.get(random.nextInt(nodes.size())), random.nextInt(1000));
+                    }
+                    // and some unconsolidated roots
+                    for (int i = random.nextInt(100); i > 0; i--) {
+                        nodes.add(heap.insert(random.nextInt(100_000)));
+                    }
+                }
+                int[] expected = nodes.stream().mapToInt(node -> node.key).sorted().toArray();
+                int treeCount = heap.treeCount;
+                int size = heap.size();
+                for (int k : new int[]{0, 1, 2, 10, 100, size, size + 5}) {
+                    int[] ret = FibonacciHeap.kMin(heap, k);
+                    assertArrayEquals(Arrays.copyOf(expected, Math.max(0, Math.min(k, size))), ret, "k = " + k);
+                    var retNodes = FibonacciHeap.kMinNodes(heap, k);
+                    assertEquals(ret.length, retNodes.length);
+                    for (int i = 0; i < ret.length; i++) {
+                        assertEquals(ret[i], retNodes[i].key);
+                    }
+                }
+                assertEquals(treeCount, heap.treeCount);
+                assertEquals(size, heap.size());
+            }
+        }
+    }
+
+    @Nested
+    class sortedIterator {
+        @Test
+        void matchesSortedKeys() {
+            Random random = new Random(13);
+            for (int round = 0; round < 50; round++) {
+                var heap = new FibonacciHeap();
+                List<FibonacciHeap.HeapNode> nodes = new ArrayList<>();
+                for (int i = random.nextInt(3000); i > 0; i--) {
+                    nodes.add(heap.insert(random.nextInt(100_000)));
+                }
+                if (heap.size() > 1) {
+                    nodes.remove(heap.findMin());
+                    heap.deleteMin();
+                    for (int i = random.nextInt(200); i > 0; i--) {
+                        heap.decreaseKey(nodes.get(random.nextInt(nodes.size())), random.nextInt(1000));
+                    }
+                }
+                int[] expected = nodes.stream().mapToInt(node -> node.key).sorted().toArray();
+                assertArrayEquals(expected, heap.sortedKeys().toArray());
+                var iterator = heap.sortedIterator();
+                for (int key : expected) {
+                    assertTrue(iterator.hasNext());
+                    assertEquals(key, iterator.nextInt());
+                }
+                assertFalse(iterator.hasNext());
+                assertThrows(NoSuchElementException.class, iterator::nextInt);
+                // the heap is untouched
+                assertEquals(expected.length, heap.size());
+                assertArrayEquals(expected, heap.deleteMin(expected.length));
+            }
+        }
+
+        @Test
+        void stopsEarly() {
+            var heap = new FibonacciHeap();
+            heap.insertAll(IntStream.range(0, 100_000).map(i -> 100_000 - i).toArray(), true);
+            assertArrayEquals(IntStream.rangeClosed(1, 5).toArray(), heap.sortedKeys().limit(5).toArray());
+            assertEquals(100_000, heap.sortedSpliterator().getExactSizeIfKnown());
+            assertArrayEquals(new int[0], new FibonacciHeap().sortedKeys().toArray());
+        }
+    }
+
+    @Nested
+    class forest {
+        FibonacciHeap randomHeap(Random random, List<FibonacciHeap.HeapNode> nodes) {
+            var heap = new FibonacciHeap();
+            for (int i = random.nextInt(5000); i > 0; i--) {
+                nodes.add(heap.insert(random.nextInt(1_000_000)));
+            }
+            if (heap.size() > 1) {
+                nodes.remove(heap.findMin());
+                heap.deleteMin();
+                for (int i = random.nextInt(500); i > 0; i--) {
+                    heap.decreaseKey(nodes.get(random.nextInt(nodes.size())), random.nextInt(1000));
+                }
+                for (int i = random.nextInt(100); i > 0; i--) {
+                    nodes.add(heap.insert(random.nextInt(1_000_000)));
+                }
+            }
+            return heap;
+        }
+
+        void splitAll(Spliterator<FibonacciHeap.HeapNode> spliterator, List<FibonacciHeap.HeapNode> out) {
+            Spliterator<FibonacciHeap.HeapNode> prefix;
+            while ((prefix = spliterator.trySplit()) != null) {
+                splitAll(prefix, out);
+            }
+            spliterator.forEachRemaining(out::add);
+        }
+
+        @Test
+        void visitsEveryNodeOnce() {
+            Random random = new Random(14);
+            for (int round = 0; round < 30; round++) {
+                List<FibonacciHeap.HeapNode> nodes = new ArrayList<>();
+                var heap = randomHeap(random, nodes);
+                Set<FibonacciHeap.HeapNode> expected = Collections.newSetFromMap(new IdentityHashMap<>());
+                expected.addAll(nodes);
+
+                List<FibonacciHeap.HeapNode> visited = new ArrayList<>();
+                splitAll(heap.spliterator(), visited);
+                assertEquals(nodes.size(), visited.size());
+                Set<FibonacciHeap.HeapNode> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+                seen.addAll(visited);
+                assertEquals(expected, seen);
+
+                assertEquals(nodes.size(), heap.nodes().count());
+                assertEquals(nodes.size(), heap.nodes().parallel().count());
+                long sum = nodes.stream().mapToLong(node -> node.key).sum();
+                assertEquals(sum, heap.keys().parallel().asLongStream().sum());
+                // the heap is untouched
+                assertEquals(nodes.size(), heap.size());
+                assertArrayEquals(nodes.stream().mapToInt(node -> node.key).sorted().toArray(),
+                        heap.sortedKeys().toArray());
+            }
+        }
+
+        @Test
+        void parallelAggregations() {
+            var heap = new FibonacciHeap();
+            heap.insertAll(IntStream.range(0, 200_000).toArray(), true);
+            assertEquals(1000, heap.keys().parallel().filter(key -> key >= 5000 && key < 6000).count());
+            var ranks = heap.nodes().parallel()
+                    .collect(Collectors.groupingBy(FibonacciHeap.HeapNode::getRank, Collectors.counting()));
+            assertEquals(200_000L, ranks.values().stream().mapToLong(Long::longValue).sum());
+            assertEquals(0, new FibonacciHeap().nodes().count());
+        }
+    }
+
+    @Nested
+    class meld {
+
+        @Test
+        public void oneEmpty(){
+            buildHeap(11); // set this.heap
+            var emptyHeap = new FibonacciHeap();
+
+            heap.meld(emptyHeap);
+            assertEquals(11, heap.size);
+            var node = heap.treeListStart;
+            for (int i = 10; i >= 0; i--) {
+                assertEquals(i, node.key);
+                node = node.next;
+            }
+
+            emptyHeap = new FibonacciHeap();
+            emptyHeap.meld(heap);
+            assertEquals(11, emptyHeap.size);
+            node = emptyHeap.treeListStart;
+            for (int i = 10; i >= 0; i--) {
+                assertEquals(i, node.key);
+                node = node.next;
+            }
+        }
+
+        @Test
+        public void bothEmpty(){
+            heap = new FibonacciHeap();
+            var heap2 = new FibonacciHeap();
+            heap.meld(heap2);
+            assertEquals(0, heap.size);
+            assertEquals(0, heap.markedCount);
+            assertEquals(0,heap.treeCount);
+            assertNull(heap.min);
+            assertNull(heap.treeListStart);
+        }
+    }
+
+    @Nested
+    class countersRep {
+        @Test
+        void empty() {
+            heap = new FibonacciHeap();
+            int[] arr = heap.countersRep();
+            assertArrayEquals(new int[] {}, arr);
+        }
+
+        @Test
+        void linkedList() {
+            for (int i = 10; i < 100; i++) {
+                heap = new FibonacciHeap();
+                buildHeap(i);
+                int[] arr = heap.countersRep();
+                assertEquals(1, arr.length, "Iteration %d".formatted(i));
+                assertEquals(i, arr[0]);
+            }
+        }
+
+        @Test
+        void binomialHeap(){
+            for (int i = 10; i < 1000; i++) {
+                heap = new FibonacciHeap();
+                buildHeap(i);
+                heap.consolidate();
+                testArray(i);
+            }
+        }
+
+        @Test
+        void lazyBinomialHeap(){
+            for (int j : PRIMES) {
+                for (int i = 10; i < 1000; i++) {
+                    heap = new FibonacciHeap();
+                    buildHeap(i,j);
+                    testArray(i);
+                }
+            }
+        }
+
+        private void testArray(int i) {
+            int[] arr = heap.countersRep();
+            int sum = 0;
+            int multiplier = 1;
+            for (int bit: arr) {
+                sum += multiplier * bit;
+                multiplier = multiplier * 2;
+            }
+            assertEquals(heap.size, sum, "Iteration %d".formatted(i));
+        }
+    }
+
+    @Nested
+    class findMin{
+        @Test
+        void minWasInsertedLongAgo() {
+            final int N = 1000;
+            for (int i = 0; i < N; i++) {
+                int large = N*N;
+                heap = new FibonacciHeap();
+                heap.insert(large);
+                heap.insert(large+1);
+                heap.insert(-large);
+                int[] itemsInHeap = randomInserts(i);
+                assertEquals(-large, heap.min.key);
+                assertEquals(-large, heap.findNewMin().key);
+            }
+        }
+    }
+
+    @Nested
+    class insert{
+        @Test
+        void insertRandomNumbers(){
+            // long test
+            for (int i = 1; i < 5000; i++) {
+                heap = new FibonacciHeap();
+                int[] itemsInHeap = randomInserts(i);
+                assertEquals(heap.size, i, "iteration i = %d\n".formatted(i));
+                Arrays.sort(itemsInHeap);
+                int[] fromHeap = new int[i];
+                int delCount = 0;
+                for (int j = 0; j < i; j++) {
+                    fromHeap[j] = heap.findMin().key;
+                    heap.deleteMin();
+                    delCount++;
+                    assertEquals(heap.size, i - delCount);
+                }
+                assertArrayEquals(itemsInHeap, fromHeap, "iteration i = %d\n".formatted(i));
+            }
+        }
+    }
+
+    @Nested
+    class insertAll {
+        int[] drain(FibonacciHeap heap) {
+            int[] keys = new int[heap.size()];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = heap.findMin().key;
+                heap.deleteMin();
+            }
+            return keys;
+        }
+
+        @Test
+        void matchesInsert() {
+            Random random = new Random(10);
+            for (boolean consolidate : new boolean[]{false, true}) {
+                for (int n : new int[]{0, 1, 2, 7, 64, 1000, 4321}) {
+                    var heap = new FibonacciHeap();
+                    int[] expected = new int[50 + n];
+                    for (int i = 0; i < 50; i++) {
+                        expected[i] = random.nextInt(100_000);
+                        heap.insert(expected[i]);
+                    }
+                    int[] keys = random.ints(n, 0, 100_000).toArray();
+                    System.arraycopy(keys, 0, expected, 50, n);
+                    var nodes = heap.insertAll(keys, consolidate);
+                    assertEquals(n, nodes.length);
+                    for (int i = 0; i < n; i++) {
+                        assertEquals(keys[i], nodes[i].key);
+                    }
+                    assertEquals(50 + n, heap.size());
+                    if (consolidate) {
+                        // one tree per set bit of n, besides the 50 singletons
+                        assertEquals(50 + Integer.bitCount(n), heap.treeCount);
+                    } else {
+                        assertEquals(50 + n, heap.treeCount);
+                    }
+                    Arrays.sort(expected);
+                    assertArrayEquals(expected, drain(heap));
+                }
+            }
+        }
+
+        @Test
+        void nodesSupportDecreaseKey() {
+            var heap = new FibonacciHeap();
+            var nodes = heap.insertAll(IntStream.range(0, 1000).map(i -> 2 * i + 10));
+            heap.decreaseKey(nodes[999], 2007);
+            assertEquals(1, heap.findMin().key);
+            heap.deleteMin();
+            assertEquals(10, heap.findMin().key);
+            assertEquals(999, drain(heap).length);
+        }
+    }
+
+    @Nested
+    class deleteMinBatch {
+        @Test
+        void matchesRepeatedDeleteMin() {
+            Random random = new Random(11);
+            var batched = new FibonacciHeap();
+            var single = new FibonacciHeap();
+            List<FibonacciHeap.HeapNode> batchedNodes = new ArrayList<>();
+            List<FibonacciHeap.HeapNode> singleNodes = new ArrayList<>();
+            int counter = 0;
+            for (int round = 0; round < 200; round++) {
+                // distinct keys: the low digits are a counter and decreaseKey keeps them
+                for (int i = random.nextInt(300); i > 0; i--) {
+                    int key = random.nextInt(1000) * 100_000 + counter++;
+                    batchedNodes.add(batched.insert(key));
+                    singleNodes.add(single.insert(key));
+                }
+                // decreaseKey leaves marked nodes and cut trees behind
+                for (int i = random.nextInt(50); i > 0 && !batchedNodes.isEmpty(); i--) {
+                    int index = random.nextInt(batchedNodes.size());
+                    int delta = random.nextInt(20) * 100_000;
+                    batched.decreaseKey(batchedNodes.get(index), delta);
+                    single.decreaseKey(singleNodes.get(index), delta);
+                }
+                int k = random.nextInt(200);
+                int[] keys = batched.deleteMin(k);
+                assertEquals(Math.min(k, single.size()), keys.length);
+                for (int key : keys) {
+                    assertEquals(single.findMin().key, key);
+                    single.deleteMin();
+                }
+                assertEquals(single.size(), batched.size());
+                assertEquals(single.isEmpty(), batched.isEmpty());
+                if (!single.isEmpty()) {
+                    assertEquals(single.findMin().key, batched.findMin().key);
+                }
+                assertEquals(Arrays.stream(batched.countersRep()).sum(), batched.treeCount);
+                assertTrue(batched.markedCount >= 0 && batched.markedCount <= batched.size());
+                // drop handles of nodes that are gone
+                Set<FibonacciHeap.HeapNode> removed = new HashSet<>();
+                for (int i = 0; i < singleNodes.size(); i++) {
+                    if (singleNodes.get(i).key < (single.isEmpty() ? Integer.MAX_VALUE : single.findMin().key)) {
+                        removed.add(singleNodes.get(i));
+                    }
+                }
+                for (int i = singleNodes.size() - 1; i >= 0; i--) {
+                    if (removed.contains(singleNodes.get(i))) {
+                        singleNodes.remove(i);
+                        batchedNodes.remove(i);
+                    }
+                }
+            }
+        }
+
+        @Test
+        void drainToClampsToSize() {
+            var heap = new FibonacciHeap();
+            heap.insertAll(new int[]{5, 3, 9, 1});
+            int[] out = new int[10];
+            assertEquals(0, heap.drainTo(out, 0));
+            assertEquals(4, heap.drainTo(out, 10));
+            assertArrayEquals(new int[]{1, 3, 5, 9}, Arrays.copyOf(out, 4));
+            assertTrue(heap.isEmpty());
+            assertNull(heap.findMin());
+            assertEquals(0, heap.drainTo(out, 3));
+            assertEquals(0, heap.deleteMin(3).length);
+            heap.insert(7);
+            assertEquals(7, heap.findMin().key);
+        }
+    }
+
+    @Nested
+    class nodePool {
+        @Test
+        void removedNodesAreReused() {
+            var heap = new FibonacciHeap();
+            heap.setNodePoolCapacity(2);
+            var a = heap.insert(1);
+            var b = heap.insert(2);
+            var c = heap.insert(3);
+            int generation = a.getGeneration();
+            heap.deleteMin();
+            assertNotEquals(generation, a.getGeneration());
+            heap.delete(c);
+            heap.insert(0);
+            heap.insert(2);
+            heap.deleteMin(2);
+            heap.deleteMin();
+            assertTrue(heap.isEmpty());
+            // the pool holds two nodes at most
+            var d = heap.insert(10);
+            var e = heap.insert(20);
+            var f = heap.insert(30);
+            Set<FibonacciHeap.HeapNode> reused = Collections.newSetFromMap(new IdentityHashMap<>());
+            reused.addAll(List.of(d, e, f));
+            assertEquals(3, reused.size());
+            assertEquals(1, (int) Stream.of(d, e, f).filter(node -> node != a && node != b && node != c).count());
+            assertEquals(10, heap.findMin().key);
+            assertEquals(0, d.getRank());
+            assertFalse(d.isMarked());
+        }
+
+        @Test
+        void randomOperations() {
+            Random random = new Random(15);
+            var heap = new FibonacciHeap();
+            heap.setNodePoolCapacity(64);
+            PriorityQueue<Integer> oracle = new PriorityQueue<>();
+            List<FibonacciHeap.HeapNode> handles = new ArrayList<>();
+            List<Integer> generations = new ArrayList<>();
+            for (int i = 0; i < 20000; i++) {
+                int op = random.nextInt(10);
+                if (op < 4) {
+                    int key = random.nextInt(100_000);
+                    var node = heap.insert(key);
+                    handles.add(node);
+                    generations.add(node.getGeneration());
+                    oracle.add(key);
+                } else if (op < 6 && !heap.isEmpty()) {
+                    assertEquals((int) oracle.poll(), heap.findMin().key);
+                    heap.deleteMin();
+                } else if (!handles.isEmpty()) {
+                    int index = random.nextInt(handles.size());
+                    var node = handles.get(index);
+                    if (node.getGeneration() != generations.get(index)) {
+                        // stale handle, the node was removed
+                        handles.remove(index);
+                        generations.remove(index);
+                        continue;
+                    }
+                    oracle.remove(node.key);
+                    if (op < 8) {
+                        heap.delete(node);
+                    } else {
+                        int delta = random.nextInt(1000);
+                        heap.decreaseKey(node, delta);
+                        oracle.add(node.key);
+                    }
+                }
+                assertEquals(oracle.size(), heap.size());
+            }
+            heap.setNodePoolCapacity(0);
+            int[] expected = oracle.stream().mapToInt(Integer::intValue).sorted().toArray();
+            assertArrayEquals(expected, heap.deleteMin(heap.size()));
+            assertThrows(IllegalArgumentException.class, () -> heap.setNodePoolCapacity(-1));
+        }
+    }
+
+    @Nested
+    class consolidationPolicy {
+        @Test
+        void thresholdMatchesEager() {
+            Random random = new Random(18);
+            var eager = new FibonacciHeap();
+            var lazy = new FibonacciHeap();
+            lazy.setConsolidationPolicy(FibonacciHeap.ConsolidationPolicy.THRESHOLD, 4);
+            assertEquals(FibonacciHeap.ConsolidationPolicy.THRESHOLD, lazy.getConsolidationPolicy());
+            // distinct keys: the low digits are a counter and decreaseKey keeps them, so the lists stay aligned
+            List<FibonacciHeap.HeapNode> eagerNodes = new ArrayList<>();
+            List<FibonacciHeap.HeapNode> lazyNodes = new ArrayList<>();
+            int counter = 0;
+            for (int i = 0; i < 30000; i++) {
+                int op = random.nextInt(10);
+                if (op < 4) {
+                    int key = random.nextInt(1000) * 100_000 + counter++;
+                    eagerNodes.add(eager.insert(key));
+                    lazyNodes.add(lazy.insert(key));
+                } else if (op < 8 && !eager.isEmpty()) {
+                    assertEquals(eager.findMin().key, lazy.findMin().key);
+                    int index = eagerNodes.indexOf(eager.findMin());
+                    assertSame(lazyNodes.get(index), lazy.findMin());
+                    eagerNodes.remove(index);
+                    lazyNodes.remove(index);
+                    eager.deleteMin();
+                    lazy.deleteMin();
+                } else if (!eagerNodes.isEmpty()) {
+                    int index = random.nextInt(eagerNodes.size());
+                    int delta = random.nextInt(20) * 100_000;
+                    eager.decreaseKey(eagerNodes.get(index), delta);
+                    lazy.decreaseKey(lazyNodes.get(index), delta);
+                }
+                assertEquals(eager.size(), lazy.size());
+            }
+            assertTrue(lazy.getStats().getConsolidations() < eager.getStats().getConsolidations());
+            assertArrayEquals(eager.deleteMin(eager.size()), lazy.deleteMin(lazy.size()));
+        }
+
+        @Test
+        void thresholdBoundsTheRootList() {
+            var heap = new FibonacciHeap();
+            heap.setConsolidationPolicy(FibonacciHeap.ConsolidationPolicy.THRESHOLD, 1);
+            heap.insertAll(IntStream.range(0, 1 << 12).toArray());
+            for (int i = 0; i < 2000; i++) {
+                heap.deleteMin();
+                // log2(n) + 1 roots, or the distinct ranks left by the last consolidate
+                assertTrue(heap.treeCount <= 13, "treeCount = " + heap.treeCount);
+                assertEquals(i + 1, heap.findMin().key);
+            }
+            assertThrows(IllegalArgumentException.class,
+                    () -> heap.setConsolidationPolicy(FibonacciHeap.ConsolidationPolicy.EAGER, 0));
+            assertThrows(NullPointerException.class, () -> heap.setConsolidationPolicy(null));
+        }
+
+        @Test
+        void incrementalMatchesOracle() {
+            Random random = new Random(19);
+            var heap = new FibonacciHeap();
+            heap.setConsolidationPolicy(FibonacciHeap.ConsolidationPolicy.INCREMENTAL, 3);
+            PriorityQueue<Integer> oracle = new PriorityQueue<>();
+            List<FibonacciHeap.HeapNode> nodes = new ArrayList<>();
+            for (int i = 0; i < 30000; i++) {
+                int op = random.nextInt(10);
+                if (op < 4) {
+                    int key = random.nextInt(100_000);
+                    nodes.add(heap.insert(key));
+                    oracle.add(key);
+                } else if (op < 6 && !heap.isEmpty()) {
+                    var min = heap.findMin();
+                    nodes.remove(min);
+                    assertEquals((int) oracle.poll(), min.key);
+                    heap.deleteMin();
+                } else if (!nodes.isEmpty()) {
+                    var node = nodes.get(random.nextInt(nodes.size()));
+                    oracle.remove(node.key);
+                    if (op < 7) {
+                        nodes.remove(node);
+                        heap.delete(node);
+                    } else {
+                        heap.updateKey(node, random.nextInt(100_000));
+                        oracle.add(node.key);
+                    }
+                }
+                assertEquals(oracle.size(), heap.size());
+                if (!heap.isEmpty()) {
+                    assertEquals((int) oracle.peek(), heap.findMin().key);
+                }
+                assertEquals(heap.treeCount, Arrays.stream(heap.countersRep()).sum());
+            }
+            assertArrayEquals(oracle.stream().mapToInt(Integer::intValue).sorted().toArray(),
+                    heap.deleteMin(heap.size()));
+        }
+
+        @Test
+        void incrementalBoundsLinksPerOperation() {
+            final int steps = 2;
+            var heap = new FibonacciHeap();
+            heap.setConsolidationPolicy(FibonacciHeap.ConsolidationPolicy.INCREMENTAL, steps);
+            var stats = heap.getStats();
+            Random random = new Random(20);
+            for (int i = 0; i < 100_000; i++) {
+                long links = stats.getLinks();
+                heap.insert(random.nextInt());
+                assertTrue(stats.getLinks() - links <= steps + 2);
+            }
+            // the burst was consolidated along the way
+            assertTrue(heap.treeCount < 64, "treeCount = " + heap.treeCount);
+            for (int i = 0; i < 1000; i++) {
+                long links = stats.getLinks();
+                int rank = heap.findMin().getRank();
+                heap.deleteMin();
+                assertTrue(stats.getLinks() - links <= steps + 2L * rank);
+                assertTrue(heap.treeCount < 64, "treeCount = " + heap.treeCount);
+            }
+        }
+
+        @Test
+        void incrementalKeepsTheRootListShortAfterBulkAdds() {
+            final int steps = 2;
+            var heap = new FibonacciHeap();
+            heap.setConsolidationPolicy(FibonacciHeap.ConsolidationPolicy.INCREMENTAL, steps);
+            int[] keys = new Random(19).ints(200000, 0, 1_000_000).toArray();
+            heap.insertAll(keys);
+            int budget = heap.stepBudget();
+            assertEquals(steps + 2 * ((int) (1.4405 * (Math.floor(Math.log(heap.size()) / Math.log(2)) + 1)) + 1),
+                    budget);
+            // at most budget pending roots, and one settled root per rank
+            assertTrue(heap.treeCount <= 2 * budget, "treeCount = " + heap.treeCount);
+            var other = new FibonacciHeap();
+            int[] otherKeys = new Random(20).ints(50000, 0, 1_000_000).toArray();
+            other.insertAll(otherKeys);
+            heap.meld(other);
+            assertTrue(heap.treeCount <= 2 * heap.stepBudget(), "treeCount = " + heap.treeCount);
+            for (int i = 0; i < 100; i++) {
+                heap.insert(1_000_000 + i);
+                assertTrue(heap.lastStepCount <= 2 * heap.stepBudget(), "steps = " + heap.lastStepCount);
+            }
+            int[] expected = IntStream.concat(IntStream.concat(Arrays.stream(keys), Arrays.stream(otherKeys)),
+                    IntStream.range(1_000_000, 1_000_100)).sorted().toArray();
+            for (int key : expected) {
+                assertEquals(key, heap.findMin().key);
+                heap.deleteMin();
+                assertTrue(heap.treeCount <= 2 * Math.max(heap.stepBudget(), 4), "treeCount = " + heap.treeCount);
+            }
+            assertTrue(heap.isEmpty());
+        }
+
+        @Test
+        void switchingToIncrementalConsolidatesOnce() {
+            var heap = new FibonacciHeap();
+            heap.insertAll(IntStream.range(0, 10000).toArray());
+            assertEquals(10000, heap.treeCount);
+            heap.setConsolidationPolicy(FibonacciHeap.ConsolidationPolicy.INCREMENTAL);
+            assertEquals(Integer.bitCount(10000), heap.treeCount);
+            assertEquals(1, heap.getStats().getConsolidations());
+            for (int i = 0; i < 100; i++) {
+                assertEquals(i, heap.findMin().key);
+                heap.deleteMin();
+                assertTrue(heap.treeCount < 64, "treeCount = " + heap.treeCount);
+            }
+        }
+    }
+
+    @Nested
+    class parallelConsolidate {
+        @Test
+        void matchesSequential() {
+            int n = 3 * FibonacciHeap.PARALLEL_THRESHOLD + 12345;
+            int[] keys = new Random(20).ints(n, 0, 1_000_000).toArray();
+            var sequential = new FibonacciHeap();
+            var parallel = new FibonacciHeap();
+            sequential.insertAll(keys);
+            parallel.insertAll(keys);
+            assertEquals(n, parallel.treeCount);
+            sequential.consolidate();
+            ForkJoinPool pool = new ForkJoinPool(4);
+            try {
+                parallel.consolidate(pool);
+            } finally {
+                pool.shutdown();
+            }
+            // singletons link into one binomial tree per set bit of n
+            assertEquals(Integer.bitCount(n), parallel.treeCount);
+            assertArrayEquals(sequential.countersRep(), parallel.countersRep());
+            assertEquals(sequential.findMin().key, parallel.findMin().key);
+            assertEquals(sequential.getStats().getLinks(), parallel.getStats().getLinks());
+            assertEquals(n - Integer.bitCount(n), parallel.getStats().getLinks());
+            assertArrayEquals(sequential.deleteMin(1000), parallel.deleteMin(1000));
+            assertArrayEquals(sequential.deleteMin(sequential.size()), parallel.deleteMin(parallel.size()));
+        }
+
+        @Test
+        void keepsIncrementalStateConsistent() {
+            var heap = new FibonacciHeap();
+            int n = 2 * FibonacciHeap.PARALLEL_THRESHOLD;
+            int[] keys = new Random(21).ints(n, 0, 1_000_000).toArray();
+            heap.setConsolidationPolicy(FibonacciHeap.ConsolidationPolicy.INCREMENTAL);
+            // insertAll settles all but stepBudget() of the new roots, so some are still pending
+            var nodes = heap.insertAll(keys);
+            assertTrue(heap.treeCount <= 2 * heap.stepBudget());
+            ForkJoinPool pool = new ForkJoinPool(2);
+            try {
+                heap.consolidate(pool);
+            } finally {
+                pool.shutdown();
+            }
+            PriorityQueue<Integer> oracle = new PriorityQueue<>();
+            for (int key : keys) {
+                oracle.add(key);
+            }
+            for (int i = 0; i < 1000; i++) {
+                var node = nodes[i];
+                oracle.remove(node.key);
+                heap.decreaseKey(node, 1_000_000);
+                oracle.add(node.key);
+            }
+            for (int i = 0; i < n; i++) {
+                assertEquals((int) oracle.poll(), heap.findMin().key);
+                heap.deleteMin();
+            }
+            assertTrue(heap.isEmpty());
+        }
+
+        @Test
+        void shortListsFallBackToSequential() {
+            var heap = new FibonacciHeap();
+            heap.insertAll(IntStream.range(0, 1000).toArray());
+            heap.consolidate(ForkJoinPool.commonPool());
+            assertEquals(Integer.bitCount(1000), heap.treeCount);
+            assertEquals(0, heap.findMin().key);
+            assertEquals(1, heap.getStats().getConsolidations());
+        }
+    }
+
+    @Nested
+    class snapshot {
+        @Test
+        void staysAsItWas() {
+            var heap = new FibonacciHeap();
+            int[] keys = new Random(21).ints(5000, 0, 1_000_000).toArray();
+            var nodes = heap.insertAll(keys);
+            heap.deleteMin(100);
+            int[] expectedKeys = FibonacciHeap.kMin(heap, heap.size());
+            int[] expectedCounters = heap.countersRep();
+            var snapshot = heap.snapshot();
+            var again = heap.snapshot();
+            for (int i = 0; i < 1000; i++) {
+                heap.insert(i);
+            }
+            heap.deleteMin(2000);
+            heap.decreaseKey(nodes[4999], 3);
+            assertArrayEquals(expectedKeys, snapshot.sortedKeys());
+            assertArrayEquals(expectedCounters, snapshot.countersRep());
+            assertArrayEquals(Arrays.copyOf(expectedKeys, 10), again.kMin(10));
+            assertEquals(4900, snapshot.size());
+            // the handles of the heap stay its own
+            assertEquals(3900, heap.size());
+            int[] rest = heap.deleteMin(heap.size());
+            for (int i = 1; i < rest.length; i++) {
+                assertTrue(rest[i - 1] <= rest[i]);
+            }
+            assertArrayEquals(expectedKeys, snapshot.sortedKeys());
+        }
+
+        @Test
+        void everySnapshotSeesItsOwnTime() {
+            var heap = new FibonacciHeap();
+            heap.setNodePoolCapacity(100);
+            var nodes = heap.insertAll(new Random(24).ints(3000, 0, 1_000_000).toArray());
+            Random random = new Random(25);
+            List<FibonacciHeap.Snapshot> snapshots = new ArrayList<>();
+            List<int[]> expected = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                snapshots.add(heap.snapshot());
+                expected.add(heap.sortedKeys().toArray());
+                // the same nodes change between snapshots, and removed ones come back from the pool
+                heap.deleteMin(50);
+                heap.insertAll(random.ints(50, 0, 1_000_000).toArray());
+                if (nodes[i].getGeneration() == 0) {
+                    heap.decreaseKey(nodes[i], 1000);
+                }
+                if (i % 3 == 0) {
+                    snapshots.get(i / 2).close();
+                }
+            }
+            for (int i = 0; i < snapshots.size(); i++) {
+                if (!snapshots.get(i).isClosed()) {
+                    assertArrayEquals(expected.get(i), snapshots.get(i).sortedKeys());
+                }
+            }
+        }
+
+        @Test
+        void closedSnapshotsAreDropped() {
+            var heap = new FibonacciHeap();
+            heap.insertAll(IntStream.range(0, 100).toArray());
+            var snapshot = heap.snapshot();
+            snapshot.close();
+            assertTrue(snapshot.isClosed());
+            assertThrows(IllegalStateException.class, snapshot::size);
+            heap.deleteMin();
+            assertThrows(IllegalStateException.class, () -> snapshot.kMin(1));
+            // a melded heap gives its nodes away, and the heap taking them keeps them for its snapshots
+            var other = new FibonacciHeap();
+            other.insertAll(IntStream.range(200, 300).toArray());
+            var otherSnapshot = other.snapshot();
+            heap.meld(other);
+            heap.deleteMin(150);
+            assertArrayEquals(IntStream.range(200, 300).toArray(), otherSnapshot.sortedKeys());
+        }
+
+        @Test
+        void readersRunWhileTheHeapChanges() throws InterruptedException {
+            var heap = new FibonacciHeap();
+            heap.insertAll(new Random(22).ints(20000, 0, 1_000_000).toArray());
+            heap.deleteMin();
+            int[] expected = FibonacciHeap.kMin(heap, 50);
+            var snapshot = heap.snapshot();
+            List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+            Thread reader = new Thread(() -> {
+                try {
+                    for (int i = 0; i < 200; i++) {
+                        assertArrayEquals(expected, snapshot.kMin(50));
+                    }
+                } catch (Throwable t) {
+                    failures.add(t);
+                }
+            });
+            reader.start();
+            Random random = new Random(23);
+            for (int i = 0; i < 5000; i++) {
+                heap.insert(random.nextInt(1_000_000));
+                heap.deleteMin();
+            }
+            reader.join();
+            assertEquals(List.of(), failures);
+            assertArrayEquals(expected, snapshot.kMin(50));
+        }
+    }
+
+    @Nested
+    class deepCopy {
+        FibonacciHeap.HeapNode[] nodes;
+
+        @BeforeEach
+        void setUp() {
+            heap = new FibonacciHeap();
+            Random random = new Random(22);
+            nodes = heap.insertAll(random.ints(20000, 0, 1_000_000).toArray());
+            heap.deleteMin(500);
+            // cuts leave marked nodes and roots of several ranks
+            for (int i = 10000; i < 12000; i++) {
+                if (nodes[i].getGeneration() == 0) {
+                    heap.decreaseKey(nodes[i], random.nextInt(1000));
+                }
+            }
+            assertTrue(heap.getMarkedCount() > 0);
+        }
+
+        @Test
+        void keepsShapeAndIsIndependent() {
+            Map<FibonacciHeap.HeapNode, FibonacciHeap.HeapNode> mapping = new IdentityHashMap<>();
+            var copy = heap.deepCopy(mapping);
+            assertEquals(heap.size(), mapping.size());
+            assertArrayEquals(heap.countersRep(), copy.countersRep());
+            assertEquals(heap.getMarkedCount(), copy.getMarkedCount());
+            assertEquals(heap.potential(), copy.potential());
+            assertSame(mapping.get(heap.findMin()), copy.findMin());
+            mapping.forEach((node, copied) -> {
+                assertNotSame(node, copied);
+                assertEquals(node.key, copied.key);
+                assertEquals(node.rank, copied.rank);
+                assertEquals(node.mark, copied.mark);
+                assertSame(mapping.get(node.parent), copied.parent);
+                assertSame(mapping.get(node.child), copied.child);
+                assertSame(mapping.get(node.next), copied.next);
+            });
+            int[] expected = FibonacciHeap.kMin(heap, heap.size());
+            // handles of the original, translated, change only the copy
+            assertEquals(0, nodes[15000].getGeneration());
+            var handle = mapping.get(nodes[15000]);
+            copy.decreaseKey(handle, 2_000_000);
+            assertSame(handle, copy.findMin());
+            copy.deleteMin(copy.size() / 2);
+            assertArrayEquals(expected, heap.deleteMin(heap.size()));
+        }
+
+        @Test
+        void keepsTheConsolidationPolicy() {
+            heap.setConsolidationPolicy(FibonacciHeap.ConsolidationPolicy.INCREMENTAL, 3);
+            var copy = heap.deepCopy();
+            assertEquals(FibonacciHeap.ConsolidationPolicy.INCREMENTAL, copy.getConsolidationPolicy());
+            assertArrayEquals(heap.deleteMin(heap.size()), copy.deleteMin(copy.size()));
+            assertTrue(new FibonacciHeap().deepCopy().isEmpty());
+        }
+
+        @Test
+        void intoArrayHeap() {
+            Map<FibonacciHeap.HeapNode, Integer> handles = new IdentityHashMap<>();
+            var copy = FibonacciHeap.ArrayFibonacciHeap.copyOf(heap, handles);
+            assertEquals(heap.size(), copy.size());
+            assertEquals(heap.getTreeCount(), copy.getTreeCount());
+            assertEquals(heap.getMarkedCount(), copy.getMarkedCount());
+            assertArrayEquals(heap.countersRep(), copy.countersRep());
+            assertEquals((int) handles.get(heap.findMin()), copy.findMin());
+            handles.forEach((node, handle) -> {
+                assertEquals(node.key, copy.getKey(handle));
+                assertEquals(node.rank, copy.getRank(handle));
+                assertEquals(node.mark, copy.isMarked(handle));
+                int parent = node.parent == null ? FibonacciHeap.ArrayFibonacciHeap.NIL : handles.get(node.parent);
+                assertEquals(parent, copy.getParent(handle));
+            });
+            copy.decreaseKey(handles.get(nodes[15000]), 2_000_000);
+            assertEquals((int) handles.get(nodes[15000]), copy.findMin());
+            copy.deleteMin();
+            int[] expected = FibonacciHeap.kMin(heap, heap.size());
+            expected = Arrays.stream(expected).filter(key -> key != nodes[15000].key).toArray();
+            for (int key : expected) {
+                assertEquals(key, copy.getKey(copy.findMin()));
+                copy.deleteMin();
+            }
+            assertTrue(copy.isEmpty());
+        }
+    }
+
+    @Nested
+    class binaryFormat {
+        Path file;
+
+        @BeforeEach
+        void setUp() throws IOException {
+            file = Files.createTempFile("heap", ".bin");
+            heap = new FibonacciHeap();
+            Random random = new Random(23);
+            var nodes = heap.insertAll(random.ints(30000, -1_000_000, 1_000_000).toArray());
+            heap.deleteMin(1000);
+            for (int i = 0; i < 3000; i++) {
+                var node = nodes[random.nextInt(nodes.length)];
+                if (node.getGeneration() == 0) {
+                    heap.decreaseKey(node, random.nextInt(10000));
+                }
+            }
+            assertTrue(heap.getMarkedCount() > 0);
+        }
+
+        @AfterEach
+        void tearDown() throws IOException {
+            Files.deleteIfExists(file);
+        }
+
+        void assertSameTrees(FibonacciHeap expected, FibonacciHeap actual) {
+            assertEquals(expected.size(), actual.size());
+            assertEquals(expected.getTreeCount(), actual.getTreeCount());
+            assertEquals(expected.getMarkedCount(), actual.getMarkedCount());
+            assertArrayEquals(expected.countersRep(), actual.countersRep());
+            if (!expected.isEmpty()) {
+                assertEquals(expected.findMin().key, actual.findMin().key);
+            }
+            assertArrayEquals(FibonacciHeap.kMin(expected, expected.size()), FibonacciHeap.kMin(actual, actual.size()));
+        }
+
+        @Test
+        void roundTrip() throws IOException {
+            heap.writeTo(file);
+            assertEquals(20 + 5L * heap.size(), Files.size(file));
+            var restored = FibonacciHeap.readFrom(file);
+            assertSameTrees(heap, restored);
+            // writing the restored heap gives the same bytes
+            Path again = Files.createTempFile("heap", ".bin");
+            try {
+                restored.writeTo(again);
+                assertArrayEquals(Files.readAllBytes(file), Files.readAllBytes(again));
+            } finally {
+                Files.delete(again);
+            }
+            assertArrayEquals(heap.deleteMin(heap.size()), restored.deleteMin(restored.size()));
+        }
+
+        @Test
+        void severalHeapsInSmallWindows() throws IOException {
+            var empty = new FibonacciHeap();
+            var small = new FibonacciHeap();
+            small.insertAll(new int[] {5, 3, 8}, true);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                heap.writeTo(channel);
+                empty.writeTo(channel);
+                small.writeTo(channel);
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                // 7 bytes per window, so most nodes start a new window
+                assertSameTrees(heap, FibonacciHeap.readFrom(channel, 7));
+                assertTrue(FibonacciHeap.readFrom(channel, 7).isEmpty());
+                assertSameTrees(small, FibonacciHeap.readFrom(channel));
+                assertEquals(channel.size(), channel.position());
+            }
+        }
+
+        @Test
+        void optionalIds() throws IOException {
+            Map<FibonacciHeap.HeapNode, Long> ids = new IdentityHashMap<>();
+            heap.nodes().forEach(node -> ids.put(node, 3L * node.key));
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                heap.writeTo(channel, ids::get);
+            }
+            assertEquals(20 + 13L * heap.size(), Files.size(file));
+            Map<FibonacciHeap.HeapNode, Long> restoredIds = new IdentityHashMap<>();
+            FibonacciHeap restored;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                restored = FibonacciHeap.readFrom(channel, restoredIds::put);
+            }
+            assertSameTrees(heap, restored);
+            assertEquals(heap.size(), restoredIds.size());
+            restoredIds.forEach((node, id) -> assertEquals(3L * node.key, (long) id));
+        }
+
+        @Test
+        void rejectsOtherData() throws IOException {
+            Files.write(file, new byte[] {1, 2, 3});
+            assertThrows(EOFException.class, () -> FibonacciHeap.readFrom(file));
+            Files.write(file, new byte[40]);
+            assertThrows(IOException.class, () -> FibonacciHeap.readFrom(file));
+            heap.writeTo(file);
+            byte[] bytes = Files.readAllBytes(file);
+            Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+            assertThrows(EOFException.class, () -> FibonacciHeap.readFrom(file));
+        }
+    }
+
+    @Nested
+    class journaled {
+        Path directory;
+        Path snapshotFile;
+        Path logFile;
+        Random random = new Random(24);
+        // the live nodes by id, as a service keeping the ids would
+        Map<Long, FibonacciHeap.JournaledFibonacciHeap.JournaledNode> nodes = new HashMap<>();
+
+        @BeforeEach
+        void setUp() throws IOException {
+            directory = Files.createTempDirectory("journal");
+            snapshotFile = directory.resolve("heap.snapshot");
+            logFile = directory.resolve("heap.log");
+        }
+
+        @AfterEach
+        void tearDown() throws IOException {
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.toList()) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(directory);
+        }
+
+        void randomOperations(FibonacciHeap.JournaledFibonacciHeap heap, int count) throws IOException {
+            for (int i = 0; i < count; i++) {
+                int op = random.nextInt(10);
+                if (op < 5 || nodes.isEmpty()) {
+                    var node = heap.insert(random.nextInt(100_000));
+                    nodes.put(node.getId(), node);
+                } else if (op < 7) {
+                    nodes.remove(heap.deleteMin().getId());
+                } else {
+                    var ids = new ArrayList<>(nodes.keySet());
+                    var node = nodes.get(ids.get(random.nextInt(ids.size())));
+                    if (op < 9) {
+                        heap.decreaseKey(node, random.nextInt(1000));
+                    } else {
+                        heap.delete(node);
+                        nodes.remove(node.getId());
+                    }
+                }
+            }
+        }
+
+        Map<Long, Integer> keysById(FibonacciHeap.JournaledFibonacciHeap heap) {
+            return heap.nodes().collect(Collectors.toMap(
+                    FibonacciHeap.JournaledFibonacciHeap.JournaledNode::getId, FibonacciHeap.HeapNode::getKey));
+        }
+
+        @Test
+        void replaysTheLog() throws IOException {
+            Map<Long, Integer> expected;
+            try (var heap = FibonacciHeap.JournaledFibonacciHeap.open(snapshotFile, logFile, 16)) {
+                randomOperations(heap, 5000);
+                expected = keysById(heap);
+            }
+            try (var heap = FibonacciHeap.JournaledFibonacciHeap.open(snapshotFile, logFile, 16)) {
+                assertEquals(expected, keysById(heap));
+                // ids go on where they stopped
+                long maxId = expected.keySet().stream().mapToLong(Long::longValue).max().orElse(-1);
+                assertTrue(heap.insert(5).getId() > maxId);
+            }
+        }
+
+        @Test
+        void checkpointEmptiesTheLog() throws IOException {
+            Map<Long, Integer> expected;
+            try (var heap = FibonacciHeap.JournaledFibonacciHeap.open(snapshotFile, logFile, 64)) {
+                randomOperations(heap, 5000);
+                heap.checkpoint();
+                assertEquals(0, Files.size(logFile));
+                randomOperations(heap, 500);
+                expected = keysById(heap);
+            }
+            try (var heap = FibonacciHeap.JournaledFibonacciHeap.open(snapshotFile, logFile, 64)) {
+                assertEquals(expected, keysById(heap));
+                // the ids of the snapshot work in the log written after it
+                nodes.clear();
+                heap.nodes().forEach(node -> nodes.put(node.getId(), node));
+                randomOperations(heap, 500);
+                expected = keysById(heap);
+            }
+            try (var heap = FibonacciHeap.JournaledFibonacciHeap.open(snapshotFile, logFile, 64)) {
+                assertEquals(expected, keysById(heap));
+                int[] keys = expected.values().stream().mapToInt(Integer::intValue).sorted().toArray();
+                for (int key : keys) {
+                    assertEquals(key, heap.deleteMin().getKey());
+                }
+                assertNull(heap.deleteMin());
+            }
+        }
+
+        @Test
+        void crashLosesOnlyTheUncommittedBatch() throws IOException {
+            var heap = FibonacciHeap.JournaledFibonacciHeap.open(snapshotFile, logFile, 1000);
+            randomOperations(heap, 2500);
+            heap.commit();
+            Map<Long, Integer> committed = keysById(heap);
+            // never committed, as if the process died here
+            randomOperations(heap, 300);
+            heap.abandon();
+            long length = Files.size(logFile);
+            // a torn frame at the end, as if the process died while writing it
+            Files.write(logFile, new byte[] {0, 0, 0, 0, 0, 0, 0, 9, 0, 0, 0, 50, 1, 2}, StandardOpenOption.APPEND);
+            try (var recovered = FibonacciHeap.JournaledFibonacciHeap.open(snapshotFile, logFile, 1000)) {
+                assertEquals(committed, keysById(recovered));
+                assertEquals(length, Files.size(logFile));
+            }
+        }
+
+        // one frame of the log, holding a record with an opcode and a node id
+        void appendFrame(long frame, int opcode, long id) throws IOException {
+            ByteBuffer payload = ByteBuffer.allocate(9).put((byte) opcode).putLong(id);
+            CRC32 checksum = new CRC32();
+            checksum.update(payload.array());
+            ByteBuffer header = ByteBuffer.allocate(16).putLong(frame).putInt(9).putInt((int) checksum.getValue());
+            Files.write(logFile, header.array(), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            Files.write(logFile, payload.array(), StandardOpenOption.APPEND);
+        }
+
+        @Test
+        void rejectsRecordsForUnknownNodes() throws IOException {
+            try (var heap = FibonacciHeap.JournaledFibonacciHeap.open(snapshotFile, logFile, 1)) {
+                heap.insert(5);
+                heap.insert(7);
+            }
+            // DELETE of a node never inserted
+            appendFrame(3, 3, 42);
+            IOException e = assertThrows(IOException.class,
+                    () -> FibonacciHeap.JournaledFibonacciHeap.open(snapshotFile, logFile, 1));
+            assertEquals("log record for unknown node 42", e.getMessage());
+        }
+
+        @Test
+        void replaysDeleteMinOnlyForAMinimum() throws IOException {
+            try (var heap = FibonacciHeap.JournaledFibonacciHeap.open(snapshotFile, logFile, 1)) {
+                heap.insert(5);
+                heap.insert(7);
+                heap.insert(5);
+            }
+            Path inserts = directory.resolve("inserts.log");
+            Files.copy(logFile, inserts);
+            // DELETE_MIN of node 1, whose key 7 is not the minimum
+            appendFrame(4, 4, 1);
+            assertThrows(IOException.class, () -> FibonacciHeap.JournaledFibonacciHeap.open(snapshotFile, logFile, 1));
+            // DELETE_MIN of node 2, which ties with node 0 for the minimum
+            Files.copy(inserts, logFile, StandardCopyOption.REPLACE_EXISTING);
+            appendFrame(4, 4, 2);
+            try (var heap = FibonacciHeap.JournaledFibonacciHeap.open(snapshotFile, logFile, 1)) {
+                assertEquals(Map.of(0L, 5, 1L, 7), keysById(heap));
+            }
+        }
+
+        @Test
+        void skipsFramesAlreadyInTheSnapshot() throws IOException {
+            Map<Long, Integer> expected;
+            Path oldLog = directory.resolve("old.log");
+            try (var heap = FibonacciHeap.JournaledFibonacciHeap.open(snapshotFile, logFile, 10)) {
+                randomOperations(heap, 1000);
+                heap.commit();
+                Files.copy(logFile, oldLog);
+                heap.checkpoint();
+                expected = keysById(heap);
+            }
+            // a crash after the snapshot was moved in place, but before the log was emptied
+            Files.copy(oldLog, logFile, StandardCopyOption.REPLACE_EXISTING);
+            try (var heap = FibonacciHeap.JournaledFibonacciHeap.open(snapshotFile, logFile, 10)) {
+                assertEquals(expected, keysById(heap));
+            }
+            assertThrows(IllegalArgumentException.class,
+                    () -> FibonacciHeap.JournaledFibonacciHeap.open(snapshotFile, logFile, 0));
+        }
+    }
+
+    @Nested
+    class indexed {
+        @Test
+        void matchesOracle() {
+            Random random = new Random(25);
+            var heap = new FibonacciHeap.IndexedFibonacciHeap(4);
+            Map<Long, Integer> oracle = new HashMap<>();
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < 50000; i++) {
+                int op = random.nextInt(10);
+                if (op < 4 || ids.isEmpty()) {
+                    // ids that differ only in their high bits, and negative ones
+                    long id = ((long) random.nextInt(1 << 20) << 40) - random.nextInt(4);
+                    if (oracle.containsKey(id)) {
+                        long existing = id;
+                        assertThrows(IllegalArgumentException.class, () -> heap.insert(existing, 0));
+                        continue;
+                    }
+                    int key = random.nextInt(1_000_000);
+                    heap.insert(id, key);
+                    oracle.put(id, key);
+                    ids.add(id);
+                } else if (op < 6) {
+                    int minKey = Collections.min(oracle.values());
+                    assertEquals(minKey, heap.findMinKey());
+                    long id = heap.deleteMin();
+                    assertEquals(minKey, (int) oracle.remove(id));
+                    ids.remove(id);
+                } else {
+                    long id = ids.get(random.nextInt(ids.size()));
+                    if (op < 8) {
+                        int delta = random.nextInt(1000);
+                        assertTrue(heap.decreaseKeyById(id, delta));
+                        oracle.merge(id, -delta, Integer::sum);
+                    } else if (op < 9) {
+                        int key = random.nextInt(1_000_000);
+                        assertTrue(heap.updateKeyById(id, key));
+                        oracle.put(id, key);
+                    } else {
+                        assertTrue(heap.deleteById(id));
+                        assertFalse(heap.deleteById(id));
+                        oracle.remove(id);
+                        ids.remove(id);
+                    }
+                }
+                assertEquals(oracle.size(), heap.size());
+            }
+            for (long id : ids) {
+                assertTrue(heap.contains(id));
+                assertEquals((int) oracle.get(id), heap.getKey(id));
+            }
+            assertFalse(heap.contains(7));
+            assertFalse(heap.decreaseKeyById(7, 1));
+            assertThrows(NoSuchElementException.class, () -> heap.getKey(7));
+            while (!heap.isEmpty()) {
+                long id = heap.findMinId();
+                assertEquals(Collections.min(oracle.values()), oracle.remove(id));
+                assertEquals(id, heap.deleteMin());
+                assertFalse(heap.contains(id));
+            }
+            assertThrows(NoSuchElementException.class, heap::deleteMin);
+        }
+
+        @Test
+        void collidingIdsSurviveRemoval() {
+            var heap = new FibonacciHeap.IndexedFibonacciHeap();
+            // ids that differ only above bit 32, removed from all over the table
+            for (long id = 0; id < 1000; id++) {
+                heap.insert(id << 32, (int) id);
+            }
+            for (long id = 0; id < 1000; id += 3) {
+                assertTrue(heap.deleteById(id << 32));
+            }
+            for (long id = 0; id < 1000; id++) {
+                assertEquals(id % 3 != 0, heap.contains(id << 32));
+                if (id % 3 != 0) {
+                    assertEquals((int) id, heap.getKey(id << 32));
+                }
+            }
+            assertEquals(1L << 32, heap.findMinId());
+        }
+
+        @Test
+        void idsDifferingOnlyInTheTopBitsSpread() {
+            var heap = new FibonacciHeap.IndexedFibonacciHeap();
+            int count = 40000;
+            // if these shared a home slot, every insert and lookup would walk one run: seconds instead of ms
+            long start = System.nanoTime();
+            for (long j = 0; j < count; j++) {
+                heap.insert(j << 48, (int) j);
+            }
+            for (long j = 0; j < count; j++) {
+                assertEquals((int) j, heap.getKey(j << 48));
+            }
+            for (long j = 0; j < count; j += 2) {
+                assertTrue(heap.deleteById(j << 48));
+            }
+            for (long j = 0; j < count; j++) {
+                assertEquals(j % 2 == 1, heap.contains(j << 48));
+            }
+            assertTrue(System.nanoTime() - start < 1_000_000_000L, "probe runs grew with the number of ids");
+        }
+    }
+
+    @Nested
+    class decreaseKey{
+        @Test
+        void simpleCase(){
+            var heap2 = new FibonacciHeap();
+            heap = new FibonacciHeap();
+            Set<Integer> integerSet = new HashSet<>(Arrays.stream(randomInserts(1000)).boxed().toList());
+            heap2.insert(555);
+            heap.meld(heap2);
+            integerSet.add(555);
+            var node = heap2.min;
+            randomInserts(1000, integerSet);
+            assertEquals(0, heap.getStats().getCuts());
+            int oldTreeCount = heap.treeCount;
+            heap.decreaseKey(node, 93185);
+            assertTrue(heap.getStats().getCuts() > 0);
+            assertEquals(oldTreeCount + 1, heap.treeCount);
+        }
+
+        @Test
+        void binomialTree(){
+            buildHeap((int) Math.pow(2, 4));
+            heap.consolidate();
+            var oldmin = heap.min;
+            var node = heap.min.child;
+            heap.decreaseKey(node, 1000000);
+            assertEquals(heap.min, node);
+            assertEquals(2, heap.treeCount);
+            assertNotSame(node, oldmin.child);
+            assertNotSame(node, oldmin.child.next.prev);
+            assertNotSame(node, oldmin.child.prev.next);
+            assertFalse(node.isMarked());
+            assertFalse(oldmin.isMarked());
+
+            buildHeap((int) Math.pow(2, 5));
+            heap.consolidate();
+            var root = heap.treeListStart;
+            var child1 = root.child;
+            var child2 = child1.child;
+            var child3 = child2.child;
+            var child4 = child3.child;
+            heap.decreaseKey(child4, 900000);
+            assertTrue(child3.isMarked());
+            heap.decreaseKey(child3, 900000);
+            assertFalse(child3.isMarked());
+            assertTrue(child2.isMarked());
+            heap.decreaseKey(child2, 900000);
+            assertFalse(child2.isMarked());
+            assertTrue(child1.isMarked());
+            heap.decreaseKey(child1, 900000);
+            assertFalse(child1.isMarked());
+            assertFalse(root.isMarked());
+        }
+    }
+
+    @Nested
+    class updateKey {
+        @Test
+        void randomOperations() {
+            Random random = new Random(17);
+            var heap = new FibonacciHeap();
+            PriorityQueue<Integer> oracle = new PriorityQueue<>();
+            List<FibonacciHeap.HeapNode> nodes = new ArrayList<>();
+            for (int i = 0; i < 30000; i++) {
+                int op = random.nextInt(10);
+                if (op < 4) {
+                    int key = random.nextInt(100_000);
+                    nodes.add(heap.insert(key));
+                    oracle.add(key);
+                } else if (op < 6 && !heap.isEmpty()) {
+                    var min = heap.findMin();
+                    nodes.remove(min);
+                    assertEquals((int) oracle.poll(), min.key);
+                    heap.deleteMin();
+                } else if (!nodes.isEmpty()) {
+                    // the minimum half of the time, it has the most children
+                    var node = random.nextBoolean() ? heap.findMin() : nodes.get(random.nextInt(nodes.size()));
+                    oracle.remove(node.key);
+                    if (op < 8) {
+                        heap.increaseKey(node, random.nextInt(50_000));
+                    } else {
+                        heap.updateKey(node, random.nextInt(100_000));
+                    }
+                    oracle.add(node.key);
+                }
+                assertEquals(oracle.size(), heap.size());
+                if (!heap.isEmpty()) {
+                    assertEquals((int) oracle.peek(), heap.findMin().key);
+                }
+                assertEquals(heap.treeCount, Arrays.stream(heap.countersRep()).sum());
+                if (i % 100 == 0) {
+                    assertEquals(heap.markedCount, heap.nodes().filter(FibonacciHeap.HeapNode::isMarked).count());
+                    // heap order holds everywhere
+                    assertTrue(heap.nodes().allMatch(node -> node.getParent() == null || node.getParent().key <= node.key));
+                }
+            }
+            assertArrayEquals(oracle.stream().mapToInt(Integer::intValue).sorted().toArray(), heap.deleteMin(heap.size()));
+        }
+
+        @Test
+        void cutsOnlyChildrenThatBreakOrder() {
+            var heap = new FibonacciHeap();
+            heap.insertAll(new int[]{0, 10, 20, 30, 40, 50, 60, 70}, true);
+            var root = heap.findMin();
+            assertEquals(3, root.getRank());
+            assertEquals(1, heap.treeCount);
+            // children of the root are 10, 20 and 40
+            heap.increaseKey(root, 25);
+            assertEquals(25, root.key);
+            assertEquals(1, root.getRank());
+            assertEquals(3, heap.treeCount);
+            assertEquals(10, heap.findMin().key);
+            heap.updateKey(root, -5);
+            assertEquals(root, heap.findMin());
+            heap.increaseKey(root, -1);
+            assertEquals(-5, root.key);
+        }
+
+        @Test
+        void largeDeltaStopsAtMaxValue() {
+            var heap = new FibonacciHeap();
+            var nodes = heap.insertAll(new int[]{3, 4, 5, 6}, true);
+            var child = nodes[1];
+            assertEquals(nodes[0], child.getParent());
+            heap.increaseKey(child, Integer.MAX_VALUE);
+            // without saturation the key wrapped to a negative one below its parent
+            assertEquals(Integer.MAX_VALUE, child.key);
+            assertTrue(heap.nodes().allMatch(node -> node.getParent() == null || node.getParent().key <= node.key));
+            heap.increaseKey(nodes[2], Integer.MAX_VALUE - 1);
+            assertEquals(Integer.MAX_VALUE, nodes[2].key);
+            assertArrayEquals(new int[]{3, 6, Integer.MAX_VALUE, Integer.MAX_VALUE}, heap.deleteMin(4));
+        }
+    }
+
+    @Nested
+    class delete {
+        @Test
+        void randomOperations() {
+            Random random = new Random(16);
+            var heap = new FibonacciHeap();
+            PriorityQueue<Integer> oracle = new PriorityQueue<>();
+            List<FibonacciHeap.HeapNode> nodes = new ArrayList<>();
+            for (int i = 0; i < 30000; i++) {
+                int op = random.nextInt(10);
+                if (op < 4) {
+                    int key = random.nextInt(100_000);
+                    nodes.add(heap.insert(key));
+                    oracle.add(key);
+                } else if (op < 5 && !heap.isEmpty()) {
+                    var min = heap.findMin();
+                    nodes.remove(min);
+                    assertEquals((int) oracle.poll(), min.key);
+                    heap.deleteMin();
+                } else if (!nodes.isEmpty()) {
+                    var node = nodes.get(random.nextInt(nodes.size()));
+                    oracle.remove(node.key);
+                    if (op < 8) {
+                        nodes.remove(node);
+                        heap.delete(node);
+                    } else {
+                        heap.decreaseKey(node, random.nextInt(1000));
+                        oracle.add(node.key);
+                    }
+                }
+                assertEquals(oracle.size(), heap.size());
+                if (!heap.isEmpty()) {
+                    assertEquals((int) oracle.peek(), heap.findMin().key);
+                }
+                assertEquals(heap.treeCount, Arrays.stream(heap.countersRep()).sum());
+                assertEquals(heap.markedCount, heap.nodes().filter(FibonacciHeap.HeapNode::isMarked).count());
+            }
+        }
+
+        @Test
+        void doesNotConsolidate() {
+            var heap = new FibonacciHeap();
+            var nodes = heap.insertAll(IntStream.range(0, 1024).toArray());
+            heap.deleteMin();
+            long consolidations = heap.getStats().getConsolidations();
+            int treeCount = heap.treeCount;
+            // the root of the largest tree besides the minimum, then one of its children
+            var root = heap.nodes().filter(node -> node.getParent() == null && node != heap.findMin())
+                    .max(Comparator.comparingInt(FibonacciHeap.HeapNode::getRank)).get();
+            int rank = root.getRank();
+            int childRank = root.getChild().getRank();
+            heap.delete(root.getChild());
+            heap.delete(root);
+            assertEquals(consolidations, heap.getStats().getConsolidations());
+            assertEquals(1021, heap.size());
+            assertEquals(1, heap.findMin().key);
+            assertTrue(rank > 1);
+            // the children of both deleted nodes became roots
+            assertEquals(treeCount + childRank - 1 + (rank - 1), heap.treeCount);
+        }
+
+        @Test
+        void extremeKeys() {
+            var heap = new FibonacciHeap();
+            var low = heap.insert(Integer.MIN_VALUE);
+            var high = heap.insert(Integer.MAX_VALUE);
+            heap.insert(0);
+            heap.delete(high);
+            assertEquals(Integer.MAX_VALUE, high.key);
+            assertEquals(2, heap.size());
+            heap.delete(low);
+            assertEquals(0, heap.findMin().key);
+            assertEquals(1, heap.size());
+        }
+    }
+
+    @Nested
+    class Iterator{
+        @Test
+        void simpleCase(){
+            FibonacciHeap.HeapNode start = new FibonacciHeap.HeapNode(0);
+            FibonacciHeap.HeapNode node = start;
+            for (int i = 1; i < 10; i++) {
+                node.next = new FibonacciHeap.HeapNode(i);
+                node.next.prev = node;
+                node = node.next;
+            }
+            node.next = start;
+            start.prev = node;
+
+            for (FibonacciHeap.HeapNode item: new FibonacciHeap.IterableNode(start)) {
+                assertEquals(start, item);
+                assertInstanceOf(FibonacciHeap.HeapNode.class, item);
+                assertNotSame(FibonacciHeap.IterableNode.class, item.getClass());
+                start = start.next;
+            }
+        }
+    }
+    @Nested
+    class arrayHeap {
+        FibonacciHeap.ArrayFibonacciHeap arrayHeap;
+
+        @BeforeEach
+        void setUp(){
+            arrayHeap = new FibonacciHeap.ArrayFibonacciHeap(4);
+        }
+
+        @Test
+        void insertAndDrainSorted(){
+            int[] keys = random.ints(5000, -100000, 100000).distinct().toArray();
+            for (int key : keys) {
+                arrayHeap.insert(key);
+            }
+            assertEquals(keys.length, arrayHeap.size());
+            Arrays.sort(keys);
+            for (int key : keys) {
+                assertEquals(key, arrayHeap.getKey(arrayHeap.findMin()));
+                arrayHeap.deleteMin();
+            }
+            assertTrue(arrayHeap.isEmpty());
+            assertEquals(FibonacciHeap.ArrayFibonacciHeap.NIL, arrayHeap.findMin());
+        }
+
+        @Test
+        void randomOperations(){
+            PriorityQueue<Integer> expected = new PriorityQueue<>();
+            List<Integer> handles = new ArrayList<>();
+            for (int i = 0; i < 20000; i++) {
+                int op = random.nextInt(10);
+                if (op < 5 || handles.isEmpty()) {
+                    int key = random.nextInt(-1000000, 1000000);
+                    handles.add(arrayHeap.insert(key));
+                    expected.add(key);
+                } else if (op < 7) {
+                    int handle = handles.get(random.nextInt(handles.size()));
+                    int delta = random.nextInt(0, 1000);
+                    expected.remove(arrayHeap.getKey(handle));
+                    expected.add(arrayHeap.getKey(handle) - delta);
+                    arrayHeap.decreaseKey(handle, delta);
+                } else if (op < 9) {
+                    assertEquals((int) expected.poll(), arrayHeap.getKey(arrayHeap.findMin()));
+                    handles.remove((Integer) arrayHeap.findMin());
+                    arrayHeap.deleteMin();
+                } else {
+                    int handle = handles.remove(random.nextInt(handles.size()));
+                    expected.remove(arrayHeap.getKey(handle));
+                    arrayHeap.delete(handle);
+                }
+                assertEquals(expected.size(), arrayHeap.size());
+                if (!expected.isEmpty()) {
+                    assertEquals((int) expected.peek(), arrayHeap.getKey(arrayHeap.findMin()));
+                }
+            }
+        }
+
+        @Test
+        void handlesAreRecycled(){
+            int first = arrayHeap.insert(1);
+            arrayHeap.insert(2);
+            arrayHeap.deleteMin();
+            assertEquals(first, arrayHeap.insert(3));
+            assertEquals(2, arrayHeap.getKey(arrayHeap.findMin()));
+        }
+
+        @Test
+        void cascadingCuts(){
+            for (int i = 0; i <= 32; i++) {
+                arrayHeap.insert(i);
+            }
+            arrayHeap.deleteMin();
+            assertArrayEquals(new int[] {0,0,0,0,0,1}, arrayHeap.countersRep());
+            int root = arrayHeap.findMin();
+            int child1 = arrayHeap.getChild(root);
+            int child2 = arrayHeap.getChild(child1);
+            int child3 = arrayHeap.getChild(child2);
+            int child4 = arrayHeap.getChild(child3);
+            arrayHeap.decreaseKey(child4, 900000);
+            assertEquals(child4, arrayHeap.findMin());
+            assertTrue(arrayHeap.isMarked(child3));
+            arrayHeap.decreaseKey(child3, 900000);
+            assertFalse(arrayHeap.isMarked(child3));
+            assertTrue(arrayHeap.isMarked(child2));
+            arrayHeap.decreaseKey(child2, 900000);
+            assertTrue(arrayHeap.isMarked(child1));
+            arrayHeap.decreaseKey(child1, 900000);
+            assertFalse(arrayHeap.isMarked(child1));
+            assertFalse(arrayHeap.isMarked(root));
+            assertEquals(0, arrayHeap.getMarkedCount());
+            assertEquals(FibonacciHeap.ArrayFibonacciHeap.NIL, arrayHeap.getParent(child1));
+        }
+
+        @Test
+        void meldAndKMin(){
+            var other = new FibonacciHeap.ArrayFibonacciHeap();
+            for (int i = 0; i < 100; i++) {
+                arrayHeap.insert(2 * i);
+                other.insert(2 * i + 1);
+            }
+            arrayHeap.deleteMin();
+            other.deleteMin();
+            int[] moved = arrayHeap.meld(other);
+            assertTrue(other.isEmpty());
+            assertEquals(198, arrayHeap.size());
+            assertEquals(FibonacciHeap.ArrayFibonacciHeap.NIL, moved[0]);
+            assertEquals(3, arrayHeap.getKey(moved[1]));
+            int[] expected = IntStream.range(2, 52).toArray();
+            assertArrayEquals(expected, FibonacciHeap.ArrayFibonacciHeap.kMin(arrayHeap, 50));
+            assertEquals(198, arrayHeap.size());
+        }
+    }
+    @Nested
+    class offHeap {
+        @Test
+        void randomOperations(){
+            try (var offHeap = new FibonacciHeap.OffHeapFibonacciHeap()) {
+                PriorityQueue<Integer> expected = new PriorityQueue<>();
+                List<Long> handles = new ArrayList<>();
+                for (int i = 0; i < 20000; i++) {
+                    int op = random.nextInt(10);
+                    if (op < 5 || handles.isEmpty()) {
+                        int key = random.nextInt(-1000000, 1000000);
+                        handles.add(offHeap.insert(key));
+                        expected.add(key);
+                    } else if (op < 7) {
+                        long handle = handles.get(random.nextInt(handles.size()));
+                        int delta = random.nextInt(0, 1000);
+                        expected.remove(offHeap.getKey(handle));
+                        expected.add(offHeap.getKey(handle) - delta);
+                        offHeap.decreaseKey(handle, delta);
+                    } else if (op < 9) {
+                        assertEquals((int) expected.poll(), offHeap.getKey(offHeap.findMin()));
+                        handles.remove((Long) offHeap.findMin());
+                        offHeap.deleteMin();
+                    } else {
+                        long handle = handles.remove(random.nextInt(handles.size()));
+                        expected.remove(offHeap.getKey(handle));
+                        offHeap.delete(handle);
+                    }
+                    assertEquals(expected.size(), offHeap.size());
+                    if (!expected.isEmpty()) {
+                        assertEquals((int) expected.peek(), offHeap.getKey(offHeap.findMin()));
+                    }
+                }
+            }
+        }
+
+        @Test
+        void spansSeveralBuffers(){
+            try (var offHeap = new FibonacciHeap.OffHeapFibonacciHeap()) {
+                int n = (1 << 20) + 1000;
+                for (int i = n; i > 0; i--) {
+                    offHeap.insert(i);
+                }
+                offHeap.deleteMin();
+                assertEquals(n - 1, offHeap.size());
+                assertEquals(2, offHeap.getKey(offHeap.findMin()));
+                assertArrayEquals(IntStream.range(2, 12).toArray(), FibonacciHeap.OffHeapFibonacciHeap.kMin(offHeap, 10));
+            }
+        }
+
+        @Test
+        void meldAndClose(){
+            var offHeap = new FibonacciHeap.OffHeapFibonacciHeap();
+            var other = new FibonacciHeap.OffHeapFibonacciHeap();
+            offHeap.insert(5);
+            long moved = other.insert(3);
+            other.insert(7);
+            long[] table = offHeap.meld(other);
+            assertEquals(3, offHeap.getKey(table[(int) moved]));
+            assertEquals(table[(int) moved], offHeap.findMin());
+            assertArrayEquals(new int[] {3}, offHeap.countersRep());
+            assertThrows(IllegalStateException.class, other::findMin);
+            offHeap.close();
+            assertThrows(IllegalStateException.class, () -> offHeap.insert(1));
+            assertThrows(IllegalStateException.class, offHeap::size);
+            assertThrows(IllegalStateException.class, offHeap::isEmpty);
+            assertThrows(IllegalStateException.class, offHeap::getTreeCount);
+            assertThrows(IllegalStateException.class, offHeap::getMarkedCount);
+        }
+    }
+    @Nested
+    class consolidate {
+        @Test
+        void randomOperations(){
+            // small heaps after many cuts hold trees of rank above log2(size)
+            for (int round = 0; round < 50; round++) {
+                heap = new FibonacciHeap();
+                PriorityQueue<Integer> expected = new PriorityQueue<>();
+                List<FibonacciHeap.HeapNode> nodes = new ArrayList<>();
+                for (int i = 0; i < 2000; i++) {
+                    int op = random.nextInt(10);
+                    if (op < 5 || nodes.isEmpty()) {
+                        int key = random.nextInt(-1000000, 1000000);
+                        nodes.add(heap.insert(key));
+                        expected.add(key);
+                    } else if (op < 7) {
+                        var node = nodes.get(random.nextInt(nodes.size()));
+                        int delta = random.nextInt(0, 1000);
+                        expected.remove(node.key);
+                        expected.add(node.key - delta);
+                        heap.decreaseKey(node, delta);
+                    } else if (op < 9) {
+                        assertEquals((int) expected.poll(), heap.findMin().key);
+                        nodes.remove(heap.findMin());
+                        heap.deleteMin();
+                    } else {
+                        var node = nodes.remove(random.nextInt(nodes.size()));
+                        expected.remove(node.key);
+                        heap.delete(node);
+                    }
+                    assertEquals(expected.size(), heap.size());
+                    if (!expected.isEmpty()) {
+                        assertEquals((int) expected.peek(), heap.findMin().key);
+                    }
+                }
+            }
+        }
+
+        @Test
+        void reusesBucketsAcrossSizes(){
+            heap = new FibonacciHeap();
+            randomInserts(4000);
+            heap.deleteMin();
+            for (int i = 0; i < 3990; i++) {
+                heap.deleteMin();
+            }
+            randomInserts(20);
+            heap.deleteMin();
+            int[] arr = heap.countersRep();
+            int sum = 0;
+            for (int i = 0; i < arr.length; i++) {
+                sum += arr[i] << i;
+                assertTrue(arr[i] <= 1);
+            }
+            assertEquals(heap.size, sum);
+        }
+    }
+    @Nested
+    class genericHeap {
+        @Test
+        void naturalOrderWithValues(){
+            var generic = new FibonacciHeap.GenericFibonacciHeap<String, Integer>();
+            int[] keys = random.ints(2000, 0, 1000000).distinct().toArray();
+            for (int key : keys) {
+                generic.insert("k%07d".formatted(key), key);
+            }
+            Arrays.sort(keys);
+            for (int key : keys) {
+                var node = generic.deleteMin();
+                assertEquals("k%07d".formatted(key), node.getKey());
+                assertEquals(key, (int) node.getValue());
+            }
+            assertNull(generic.deleteMin());
+        }
+
+        @Test
+        void comparatorDecreaseKeyAndDelete(){
+            var generic = new FibonacciHeap.GenericFibonacciHeap<Integer, String>(Comparator.reverseOrder());
+            List<FibonacciHeap.GenericFibonacciHeap.Node<Integer, String>> nodes = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                nodes.add(generic.insert(i, "task" + i));
+            }
+            assertEquals(99, (int) generic.deleteMin().getKey());
+            generic.decreaseKey(nodes.get(3), 1000); // larger is smaller under reverse order
+            assertEquals("task3", generic.findMin().getValue());
+            generic.decreaseKey(nodes.get(5), 0); // ignored
+            assertEquals(5, (int) nodes.get(5).getKey());
+            generic.delete(nodes.get(98));
+            generic.delete(nodes.get(3));
+            assertEquals(97, generic.size());
+            assertEquals(97, (int) generic.deleteMin().getKey());
+        }
+
+        @Test
+        void meld(){
+            var generic = new FibonacciHeap.GenericFibonacciHeap<Integer, Integer>();
+            var other = new FibonacciHeap.GenericFibonacciHeap<Integer, Integer>();
+            generic.insert(2, 2);
+            other.insert(1, 1);
+            other.insert(3, 3);
+            generic.meld(other);
+            assertTrue(other.isEmpty());
+            assertEquals(3, generic.size());
+            assertEquals(1, (int) generic.findMin().getValue());
+            assertArrayEquals(new int[] {3}, generic.countersRep());
+        }
+    }
+    @Nested
+    class primitiveHeaps {
+        @Test
+        void longKeysBeyondInt(){
+            var longHeap = new FibonacciHeap.LongFibonacciHeap();
+            long base = 1_700_000_000_000_000_000L;
+            List<FibonacciHeap.LongFibonacciHeap.Node> nodes = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                nodes.add(longHeap.insert(base + 1000L * random.nextInt(1000000)));
+            }
+            longHeap.deleteMin();
+            var node = nodes.get(500);
+            longHeap.decreaseKey(node, node.getKey() - (base - 1));
+            assertSame(node, longHeap.findMin());
+            assertEquals(base - 1, longHeap.findMin().getKey());
+            longHeap.decreaseKey(node, -1);
+            assertEquals(base - 1, node.getKey());
+            long[] smallest = FibonacciHeap.LongFibonacciHeap.kMin(longHeap, 10);
+            assertEquals(base - 1, smallest[0]);
+            for (int i = 1; i < smallest.length; i++) {
+                assertTrue(smallest[i - 1] <= smallest[i]);
+            }
+            long previous = Long.MIN_VALUE;
+            while (!longHeap.isEmpty()) {
+                assertTrue(previous <= longHeap.findMin().getKey());
+                previous = longHeap.findMin().getKey();
+                longHeap.deleteMin();
+            }
+        }
+
+        @Test
+        void doubleKeysMatchSorting(){
+            var doubleHeap = new FibonacciHeap.DoubleFibonacciHeap();
+            List<FibonacciHeap.DoubleFibonacciHeap.Node> nodes = new ArrayList<>();
+            for (int i = 0; i < 2000; i++) {
+                nodes.add(doubleHeap.insert(random.nextDouble() * 100));
+            }
+            nodes.remove(doubleHeap.findMin());
+            doubleHeap.deleteMin();
+            for (int i = 0; i < 300; i++) {
+                var node = nodes.get(random.nextInt(nodes.size()));
+                doubleHeap.decreaseKey(node, random.nextDouble());
+            }
+            double unchanged = nodes.get(0).getKey();
+            doubleHeap.decreaseKey(nodes.get(0), Double.NaN);
+            assertEquals(unchanged, nodes.get(0).getKey());
+            doubleHeap.delete(nodes.remove(1));
+            List<Double> expected = new ArrayList<>();
+            for (var node : nodes) {
+                expected.add(node.getKey());
+            }
+            Collections.sort(expected);
+            double[] smallest = FibonacciHeap.DoubleFibonacciHeap.kMin(doubleHeap, 50);
+            for (int i = 0; i < smallest.length; i++) {
+                assertEquals((double) expected.get(i), smallest[i]);
+            }
+            for (double key : expected) {
+                assertEquals(key, doubleHeap.findMin().getKey());
+                doubleHeap.deleteMin();
+            }
+            assertTrue(doubleHeap.isEmpty());
+        }
+    }
+    @Nested
+    class stats {
+        @Test
+        void linksAndConsolidations() {
+            var heap = new FibonacciHeap();
+            var other = new FibonacciHeap();
+            for (int i = 0; i < 1000; i++) {
+                heap.insert(i);
+            }
+            long globalLinks = FibonacciHeap.totalLinks();
+            heap.deleteMin();
+            var stats = heap.getStats();
+            assertEquals(1, stats.getConsolidations());
+            assertEquals(999, stats.getMaxRootListLength());
+            // every link removes one root
+            assertEquals(999 - heap.treeCount, stats.getLinks());
+            assertTrue(FibonacciHeap.totalLinks() >= globalLinks + stats.getLinks());
+            assertEquals(0, other.getStats().getLinks());
+            assertEquals(0, other.getStats().getConsolidations());
+            stats.reset();
+            assertEquals(0, stats.getLinks());
+            assertEquals(0, stats.getAverageRootListLength());
+        }
+
+        @Test
+        void cascadingCutDepth() {
+            var heap = new FibonacciHeap();
+            Random random = new Random(9);
+            List<FibonacciHeap.HeapNode> nodes = new ArrayList<>();
+            for (int i = 0; i < 4096; i++) {
+                nodes.add(heap.insert(1_000_000 + i));
+            }
+            heap.deleteMin();
+            nodes.remove(0);
+            var stats = heap.getStats();
+            long cascading = 0;
+            long maxDepth = 0;
+            for (int i = 0; i < 2000; i++) {
+                var node = nodes.get(random.nextInt(nodes.size()));
+                long before = stats.getCuts();
+                heap.decreaseKey(node, random.nextInt(1000));
+                long cuts = stats.getCuts() - before;
+                if (cuts > 0) {
+                    cascading += cuts - 1;
+                    maxDepth = Math.max(maxDepth, cuts);
+                }
+            }
+            assertTrue(stats.getCuts() > 0);
+            assertEquals(cascading, stats.getCascadingCuts());
+            assertEquals(maxDepth, stats.getMaxCutDepth());
+        }
+    }
+
+    @Nested
+    class concurrentHeap {
+        @Test
+        void producersAndConsumer() throws InterruptedException {
+            var concurrent = new FibonacciHeap.ConcurrentFibonacciHeap();
+            final int producers = 4;
+            final int perProducer = 5000;
+            List<Integer> popped = Collections.synchronizedList(new ArrayList<>());
+            List<Thread> threads = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                final int offset = p;
+                threads.add(new Thread(() -> {
+                    for (int i = 0; i < perProducer; i++) {
+                        var node = concurrent.insert(10 * (i * producers + offset) + 5);
+                        if (i % 10 == 0) {
+                            concurrent.decreaseKey(node, 5);
+                        }
+                    }
+                }));
+            }
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    var node = concurrent.deleteMin();
+                    if (node != null) {
+                        popped.add(node.key);
+                    }
+                }
+            }));
+            for (Thread thread : threads) {
+                thread.start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            assertEquals(producers * perProducer, popped.size() + concurrent.size());
+            Set<Integer> all = new HashSet<>(popped);
+            Integer previous = null;
+            while (!concurrent.isEmpty()) {
+                int key = concurrent.findMinKey();
+                assertTrue(previous == null || previous <= key);
+                previous = key;
+                all.add(concurrent.deleteMin().key);
+            }
+            assertEquals(producers * perProducer, all.size());
+            assertNull(concurrent.findMinKey());
+            assertNull(concurrent.deleteMin());
+        }
+    }
+    /*
+    @Nested
+    class TheoreticalQuestions {
+        public static int binlog( int bits ) // returns 0 for bits=0
+        {
+            int log = 0;
+            if( ( bits & 0xffff0000 ) != 0 ) { bits >>>= 16; log = 16; }
+            if( bits >= 256 ) { bits >>>= 8; log += 8; }
+            if( bits >= 16  ) { bits >>>= 4; log += 4; }
+            if( bits >= 4   ) { bits >>>= 2; log += 2; }
+            return log + ( bits >>> 1 );
+        }
+
+        Map<Integer, FibonacciHeap.HeapNode> InsertAll(int[] arr) {
+            var items = new HashMap<Integer, FibonacciHeap.HeapNode>();
+            for (int i : arr){
+                items.put(i, heap.insert(i));
+            }
+            return items;
+        }
+        void decreaseKeysLogMTo1(BiFunction<Integer,Integer,Integer> keyToDecrease,
+                                 Map<Integer, FibonacciHeap.HeapNode> items, int m, boolean print) throws IOException{
+            if (print){
+                File file = new File("./result/", "%d before.txt".formatted(m));
+                file.createNewFile();
+                try (PrintStream stream = new PrintStream(file)) {
+                    HeapPrinter printer = new HeapPrinter(stream);
+                    printer.print(heap, false);
+                }
+            }
+            for (int i = binlog(m); i > 0 ; i--) {
+                int idx = keyToDecrease.apply(m,i);
+                heap.decreaseKey(items.get(idx), m + 1);
+                if (print){
+                    File file = new File("./result/", "%d, %d decrease %d.txt".formatted(m, i, idx));
+                    file.createNewFile();
+                    try (PrintStream stream = new PrintStream(file)) {
+                        HeapPrinter printer = new HeapPrinter(stream);
+                        printer.print(heap, false);
+                    }
+                }
+            }
+        }
+        @Test
+        void Q1Feel() throws IOException {
+            for (int m : new int[]{2,4,8,16}){
+                heap = new FibonacciHeap();
+                int[] arr = IntStream.range(-1, m).map(i -> m - i + - 2).toArray();
+                var items = InsertAll(arr);
+                heap.deleteMin();
+                decreaseKeysLogMTo1((z,i) -> z - (int)Math.pow(2,i) + 1,
+                        items, m, true);
+                heap.decreaseKey(items.get(m-2), m+1);
+                File file = new File("./result/", "%d, %s decrease %d.txt".formatted(m,"max",m-2));
+                file.createNewFile();
+                try (PrintStream stream = new PrintStream(file)) {
+                    HeapPrinter printer = new HeapPrinter(stream);
+                    printer.print(heap, false);
+                }
+            }
+        }
+
+
+        void Q1Measure(
+                BiFunction<Integer,Integer,Integer> keyToDecrease,
+                boolean isDeleteMin, boolean isDecAnotherKey, String modifier) throws IOException{
+            StringBuilder textForFile = new StringBuilder("|   m   | Runtime [ms] | totalLinks | totalCuts | Potential |");
+
+            if (isDecAnotherKey) {
+                textForFile.append(" Max cuts |");
+            }
+            textForFile.append("\n|_______|______________|____________|___________|___________|");
+            if (isDecAnotherKey) {
+                textForFile.append("__________|");
+            }
+            textForFile.append("\n");
+
+            for (int m : IntStream.range(1,5).map(i -> (int)Math.pow(2,5*i)).toArray()){
+                heap = new FibonacciHeap();
+                FibonacciHeap.getGlobalStats().reset();
+                long startTime = System.nanoTime();
+
+                int[] arr = IntStream.range(-1, m).map(i -> m - i + - 2).toArray();
+                var items = InsertAll(arr);
+                if (isDeleteMin) {heap.deleteMin();}
+                decreaseKeysLogMTo1(keyToDecrease,items, m, false);
+                int maxCuts = 0;
+                if (isDecAnotherKey){
+                    maxCuts = FibonacciHeap.totalCuts();
+                    heap.decreaseKey(items.get(m-2), m+1);
+                    maxCuts = FibonacciHeap.totalCuts() - maxCuts;
+                }
+
+
+                long endTime = System.nanoTime();
+                textForFile.append("|")
+                        .append(String.format("%7d", m)).append("|")
+                        .append(String.format("%14.4f",(double) (endTime - startTime)/1000000)).append("|")
+                        .append(String.format("%12d", FibonacciHeap.totalLinks())).append("|")
+                        .append(String.format("%11d", FibonacciHeap.totalCuts())).append("|")
+                        .append(String.format("%11d", heap.potential())).append("|");
+                if (isDecAnotherKey) {
+                    textForFile.append(String.format("%10d", maxCuts)).append("|");
+                }
+                textForFile.append("\n");
+            }
+
+            FileWriter writer = new FileWriter(String.format("./result/runtime Q1 %s.txt", modifier));
+            writer.write(textForFile.toString());
+            writer.close();
+        }
+
+        @Test
+        void measureQ1b() throws IOException {
+            Q1Measure((z,i) -> z - (int)Math.pow(2,i) + 1, true, false, "B");
+        }
+
+        @Test
+        void measureQ1d() throws IOException {
+            Q1Measure((z,i) -> z - (int)Math.pow(2,i), true, false, "D");
+        }
+
+        @Test
+        void measureQ1e() throws IOException {
+            Q1Measure((z,i) -> z - (int)Math.pow(2,i) + 1, false, false, "E");
+        }
+
+        @Test
+        void measureQ1f() throws IOException {
+            Q1Measure((z,i) -> z - (int)Math.pow(2,i) + 1, true, true, "F");
+        }
+
+        @Test
+        void measureQ2() throws IOException {
+            StringBuilder textForFile = new StringBuilder("|   m   | Runtime [ms] | totalLinks | totalCuts | Potential |\n");
+            for (int m : Arrays.stream(new int[]{6,8,10})
+                            .map( x -> (int)Math.pow(3,x) - 1).toArray()) {
+
+                heap = new FibonacciHeap();
+                FibonacciHeap.getGlobalStats().reset();
+                long startTime = System.nanoTime();
+                InsertAll(IntStream.range(0,m+1).toArray());
+                for (int i = 0; i < 3*m/4; i++) {
+                    heap.deleteMin();
+                }
+                long endTime = System.nanoTime();
+                textForFile.append("|")
+                        .append(String.format("%7d", m)).append("|")
+                        .append(String.format("%14.4f",(double) (endTime - startTime)/1000000)).append("|")
+                        .append(String.format("%12d", FibonacciHeap.totalLinks())).append("|")
+                        .append(String.format("%11d", FibonacciHeap.totalCuts())).append("|")
+                        .append(String.format("%11d", heap.potential())).append("|\n");
+            }
+            FileWriter writer = new FileWriter("./result/runtime Q22.txt");
+            writer.write(textForFile.toString());
+            writer.close();
+        }
+
+        @Test
+        void Q2Feel() throws IOException{
+            for (int m : new int[]{728}){
+                heap = new FibonacciHeap();
+                FibonacciHeap.getGlobalStats().reset();
+                int[] arr = IntStream.range(0, m+1).toArray();
+                var items = InsertAll(arr);
+                File file = new File("./result/", "%d before.txt".formatted(m));
+                file.createNewFile();
+                try (PrintStream stream = new PrintStream(file)) {
+                    HeapPrinter printer = new HeapPrinter(stream);
+                    printer.print(heap, false);
+                }
+                for (int i = 0; i < 3*m/4; i++) {
+                    heap.deleteMin();
+                    file = new File("./result/", "%d, after.txt".formatted(m));
+                    file.createNewFile();
+                    try (PrintStream stream = new PrintStream(file)) {
+                        HeapPrinter printer = new HeapPrinter(stream);
+                        printer.print(heap, false);
+                    }
+                }
+            }
+        }
+    }
+     */
+}
\ No newline at end of file